@@ -0,0 +1,88 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/// Шифрование многих независимых сообщений в последовательных режимах: по одному, каждое
+/// своим SymmetricAlgorithm, против encryptBatch, который чередует цепочки и делит их между ядрами.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BatchBenchmark {
+  @Param
+  public CipherType cipher;
+
+  @Param({"CBC", "CFB", "PCBC", "OFB"})
+  public EncryptionMode mode;
+
+  @Param({"64"})
+  public int messages;
+
+  @Param({"64"})
+  public int messageKb;
+
+  private SymmetricEncryption encryption;
+  private SymmetricAlgorithm algorithm;
+  private int blockSize;
+
+  private List<byte[]> IVs;
+  private List<byte[]> data;
+  private long totalBytes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+
+    encryption = cipher.create(key);
+    blockSize = encryption.getBlockSize();
+
+    Random random = new Random(42);
+    IVs = new ArrayList<>();
+    data = new ArrayList<>();
+    for (int i = 0; i < messages; i++) {
+      byte[] IV = new byte[blockSize];
+      byte[] message = new byte[messageKb << 10];
+      random.nextBytes(IV);
+      random.nextBytes(message);
+
+      IVs.add(IV);
+      data.add(message);
+      totalBytes += message.length;
+    }
+
+    algorithm = new SymmetricAlgorithm(encryption, mode, PackingMode.PKCS7, IVs.getFirst());
+  }
+
+  @Benchmark
+  public List<byte[]> sequential(ByteCounter counter) {
+    List<byte[]> result = new ArrayList<>(messages);
+    for (int i = 0; i < messages; i++) {
+      result.add(new SymmetricAlgorithm(encryption, mode, PackingMode.PKCS7, IVs.get(i)).encrypt(data.get(i)));
+    }
+
+    counter.add(totalBytes, blockSize);
+
+    return result;
+  }
+
+  @Benchmark
+  public List<byte[]> batch(ByteCounter counter) {
+    List<byte[]> result = algorithm.encryptBatch(IVs, data);
+
+    counter.add(totalBytes, blockSize);
+
+    return result;
+  }
+}
@@ -0,0 +1,37 @@
+package org.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+
+/// Точка входа benchmarks.jar. Принимает обычные аргументы JMH, но по умолчанию
+/// сохраняет результаты в JSON (benchmarks-<дата>.json), чтобы сравнивать их между релизами.
+/// Формат и файл переопределяются стандартными -rf и -rff.
+public class BenchmarkRunner {
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+
+    if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+            || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+      Main.main(args);
+      return;
+    }
+
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+
+    if (!commandLine.getResult().hasValue()) {
+      options.result("benchmarks-" + LocalDate.now() + ".json");
+    }
+
+    new Runner(options.build()).run();
+  }
+}
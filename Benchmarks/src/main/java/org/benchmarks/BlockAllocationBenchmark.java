@@ -0,0 +1,54 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricEncryption;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/// Выделение памяти на один блок: encryption(byte[]) против encryptBlock в переиспользуемый буфер.
+/// Запуск с профилировщиком GC: java -jar Benchmarks/target/benchmarks.jar BlockAllocationBenchmark -prof gc
+/// (метрика gc.alloc.rate.norm - байт на операцию).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockAllocationBenchmark {
+  @Param({"DES", "DEAL", "RC5_32", "LOKI97"})
+  public CipherType cipher;
+
+  private SymmetricEncryption encryption;
+  private byte[] block;
+  private byte[] buffer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+
+    encryption = cipher.create(key);
+
+    block = new byte[encryption.getBlockSize()];
+    new Random(42).nextBytes(block);
+    buffer = block.clone();
+  }
+
+  @Benchmark
+  public byte[] encryption() {
+    return encryption.encryption(block);
+  }
+
+  @Benchmark
+  public byte[] encryptBlockInPlace() {
+    encryption.encryptBlock(buffer, 0, buffer, 0);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] decryptBlockInPlace() {
+    encryption.decryptBlock(buffer, 0, buffer, 0);
+    return buffer;
+  }
+}
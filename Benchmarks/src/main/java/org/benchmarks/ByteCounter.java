@@ -0,0 +1,27 @@
+package org.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/// Дополнительный счётчик JMH: в режиме Throughput выводится как байт/с и блоков/с рядом с ops/s.
+/// Время на блок в наносекундах - 1e9 / blocks.
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ByteCounter {
+  public long bytes;
+  public long blocks;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    bytes = 0;
+    blocks = 0;
+  }
+
+  public void add(long size, int blockSize) {
+    bytes += size;
+    blocks += (size + blockSize - 1) / blockSize;
+  }
+}
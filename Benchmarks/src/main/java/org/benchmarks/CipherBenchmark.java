@@ -0,0 +1,118 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/// Пропускная способность SymmetricAlgorithm для всех шифров, режимов и набивок.
+/// Параметры-перечисления без значений JMH перебирает целиком; полная матрица большая,
+/// поэтому для точечных замеров удобно сужать её, например: -p cipher=RC5_32 -p source=MEMORY.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class CipherBenchmark {
+  @Param
+  public CipherType cipher;
+
+  @Param
+  public EncryptionMode mode;
+
+  @Param
+  public PackingMode packing;
+
+  @Param({"MEMORY", "FILE"})
+  public String source;
+
+  @Param({"1"})
+  public int sizeMb;
+
+  private SymmetricAlgorithm algorithm;
+  private int blockSize;
+
+  private byte[] data;
+  private byte[] encryptedData;
+  private byte[] encryptBuffer;
+
+  private Path directory;
+  private Path input;
+  private Path encrypted;
+  private Path decrypted;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+
+    SymmetricEncryption encryption = cipher.create(key);
+    blockSize = encryption.getBlockSize();
+
+    algorithm = new SymmetricAlgorithm(encryption, mode, packing, new byte[blockSize]);
+
+    // Размер кратен любому размеру блока, поэтому подходит и для набивки NO
+    data = new byte[sizeMb << 20];
+    new Random(42).nextBytes(data);
+
+    encryptedData = algorithm.encrypt(data);
+    encryptBuffer = new byte[encryptedData.length];
+
+    if (source.equals("FILE")) {
+      directory = Files.createTempDirectory("cipher-benchmark");
+      input = directory.resolve("input");
+      encrypted = directory.resolve("encrypted");
+      decrypted = directory.resolve("decrypted");
+
+      Files.write(input, data);
+      Files.write(encrypted, encryptedData);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (directory == null) {
+      return;
+    }
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void encrypt(ByteCounter counter) {
+    if (source.equals("FILE")) {
+      algorithm.encrypt(input.toString(), encrypted.toString());
+    } else {
+      algorithm.encrypt(data, encryptBuffer);
+    }
+
+    counter.add(data.length, blockSize);
+  }
+
+  @Benchmark
+  public byte[] decrypt(ByteCounter counter) {
+    byte[] result = null;
+
+    if (source.equals("FILE")) {
+      algorithm.decrypt(encrypted.toString(), decrypted.toString());
+    } else {
+      result = algorithm.decrypt(encryptedData);
+    }
+
+    counter.add(encryptedData.length, blockSize);
+
+    return result;
+  }
+}
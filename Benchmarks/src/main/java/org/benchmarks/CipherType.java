@@ -0,0 +1,33 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DEAL;
+import org.client.crypto.des.DES;
+import org.client.crypto.loki97.LOKI97;
+import org.client.crypto.rc5.RC5;
+
+import java.util.Arrays;
+
+/// Шифры, участвующие в бенчмарках. RC5 измеряется для всех допустимых размеров слова.
+public enum CipherType {
+  DES,
+  DEAL,
+  RC5_16,
+  RC5_32,
+  RC5_64,
+  LOKI97;
+
+  /// Ключ берётся из key: DES использует первые 8 байт, остальные шифры - 16 байт
+  public SymmetricEncryption create(byte[] key) {
+    byte[] key16 = Arrays.copyOf(key, 16);
+
+    return switch (this) {
+      case DES -> new DES(Arrays.copyOf(key, 8));
+      case DEAL -> new DEAL(key16);
+      case RC5_16 -> new RC5(16, 12, key16.length, key16);
+      case RC5_32 -> new RC5(32, 12, key16.length, key16);
+      case RC5_64 -> new RC5(64, 12, key16.length, key16);
+      case LOKI97 -> new LOKI97(key16);
+    };
+  }
+}
@@ -0,0 +1,66 @@
+package org.benchmarks;
+
+import org.client.crypto.des.DEAL;
+import org.client.crypto.des.DES;
+import org.client.crypto.des.FeistelCipher;
+import org.client.crypto.des.impl.DEALGenKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.client.crypto.enums.EncryptOrDecrypt.ENCRYPT;
+
+/// Шифрование одного блока DEAL на векторе из DEALTest: текущая реализация с расписаниями DES,
+/// построенными при создании шифра, против прежней схемы с new DES(key) на каждом раунде.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DEALBenchmark {
+  private static final byte[] KEY = {
+          (byte) 0xA4, (byte) 0x78, (byte) 0x74, (byte) 0x86,
+          (byte) 0xEF, (byte) 0xED, (byte) 0x04, (byte) 0x96,
+          (byte) 0x28, (byte) 0x63, (byte) 0xAF, (byte) 0xD5,
+          (byte) 0x5A, (byte) 0x37, (byte) 0xFB, (byte) 0xC4,
+  };
+  private static final byte[] MESSAGE = {
+          (byte) 0x5E, (byte) 0xB6, (byte) 0x0C, (byte) 0x37,
+          (byte) 0xE3, (byte) 0xC4, (byte) 0xF2, (byte) 0x30,
+          (byte) 0xDC, (byte) 0xA8, (byte) 0x2E, (byte) 0x77,
+          (byte) 0xBF, (byte) 0x73, (byte) 0xA5, (byte) 0x5C,
+  };
+
+  private DEAL deal;
+  private FeistelCipher rekeyPerRound;
+  private byte[] buffer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    deal = new DEAL(KEY);
+
+    List<byte[]> roundKeys = new DEALGenKey(KEY.length).genKey(KEY);
+    rekeyPerRound = new FeistelCipher(_ -> roundKeys, (text, key) -> new DES(key).encryption(text), KEY);
+
+    buffer = MESSAGE.clone();
+  }
+
+  @Benchmark
+  public byte[] encryptBlock() {
+    deal.encryptBlock(buffer, 0, buffer, 0);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] encryption() {
+    return deal.encryption(MESSAGE);
+  }
+
+  /// Прежняя схема: расписание DES заново на каждом раунде каждого блока
+  @Benchmark
+  public byte[] encryptionRekeyPerRound() {
+    return rekeyPerRound.inverseCipher(MESSAGE, ENCRYPT);
+  }
+}
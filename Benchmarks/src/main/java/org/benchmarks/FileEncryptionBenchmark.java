@@ -0,0 +1,123 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.block.FileRead;
+import org.client.crypto.block.ReadBlock;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.FileAccessMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.rc5.RC5;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/// Пропускная способность шифрования файлов.
+/// RC5 выбран как самый дешёвый шифр, чтобы на результат влиял в первую очередь ввод-вывод.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class FileEncryptionBenchmark {
+  private static final int BLOCK_SIZE = 8;
+
+  @Param({"1", "16"})
+  public int sizeMb;
+
+  @Param({"ECB", "CBC", "CTR"})
+  public EncryptionMode mode;
+
+  @Param({"BUFFERED", "MAPPED"})
+  public FileAccessMode fileAccessMode;
+
+  private Path directory;
+  private Path input;
+  private Path encrypted;
+  private Path decrypted;
+  private long fileSize;
+
+  private SymmetricAlgorithm algorithm;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("file-benchmark");
+    input = directory.resolve("input");
+    encrypted = directory.resolve("encrypted");
+    decrypted = directory.resolve("decrypted");
+
+    byte[] data = new byte[sizeMb << 20];
+    new Random(42).nextBytes(data);
+    Files.write(input, data);
+    fileSize = data.length;
+
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+    algorithm = new SymmetricAlgorithm(new RC5(32, 12, key.length, key), mode, PackingMode.PKCS7, new byte[BLOCK_SIZE]);
+    algorithm.setFileAccessMode(fileAccessMode);
+
+    algorithm.encrypt(input.toString(), encrypted.toString());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void encryptFile(ByteCounter counter) {
+    algorithm.encrypt(input.toString(), encrypted.toString());
+    counter.add(fileSize, BLOCK_SIZE);
+  }
+
+  @Benchmark
+  public void decryptFile(ByteCounter counter) {
+    algorithm.decrypt(encrypted.toString(), decrypted.toString());
+    counter.add(fileSize, BLOCK_SIZE);
+  }
+
+  /// Последовательное чтение всех блоков через буферизованный FileRead
+  @Benchmark
+  public void readBlocksBuffered(ByteCounter counter, Blackhole blackhole) {
+    long blockCount = fileSize / BLOCK_SIZE;
+
+    try (ReadBlock readBlock = new FileRead(input.toString(), BLOCK_SIZE)) {
+      for (long i = 0; i < blockCount; i++) {
+        blackhole.consume(readBlock.get(i));
+      }
+    }
+
+    counter.add(fileSize, BLOCK_SIZE);
+  }
+
+  /// Прежняя схема: отдельный FileChannel на каждый блок
+  @Benchmark
+  public void readBlocksChannelPerBlock(ByteCounter counter, Blackhole blackhole) throws IOException {
+    long blockCount = fileSize / BLOCK_SIZE;
+
+    for (long i = 0; i < blockCount; i++) {
+      byte[] block = new byte[BLOCK_SIZE];
+
+      try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+        channel.position(i * BLOCK_SIZE);
+        channel.read(ByteBuffer.wrap(block));
+      }
+
+      blackhole.consume(block);
+    }
+
+    counter.add(fileSize, BLOCK_SIZE);
+  }
+}
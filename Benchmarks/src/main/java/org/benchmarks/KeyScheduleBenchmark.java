@@ -0,0 +1,89 @@
+package org.benchmarks;
+
+import org.client.crypto.des.impl.DEALGenKey;
+import org.client.crypto.des.impl.DESGenKey;
+import org.client.crypto.loki97.impl.LOKI97FeistelFunction;
+import org.client.crypto.loki97.impl.LOKI97GenKey;
+import org.client.crypto.rc5.impl.RC5GenKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.client.crypto.loki97.boxes.Sboxes.initS1;
+import static org.client.crypto.loki97.boxes.Sboxes.initS2;
+
+/// Стоимость расписаний ключей и построения S-блоков LOKI97 - то, что платится при создании шифра
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyScheduleBenchmark {
+  @State(Scope.Thread)
+  public static class Keys {
+    @Param({"16", "24", "32"})
+    public int keyLength;
+
+    public byte[] key;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      key = new byte[keyLength];
+      new Random(7).nextBytes(key);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class RC5Words {
+    @Param({"16", "32", "64"})
+    public int w;
+  }
+
+  @State(Scope.Benchmark)
+  public static class Boxes {
+    public byte[] s1;
+    public byte[] s2;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      s1 = initS1();
+      s2 = initS2();
+    }
+  }
+
+  private static final byte[] DES_KEY = {
+          (byte) 0x13, (byte) 0x34, (byte) 0x57, (byte) 0x79, (byte) 0x9B, (byte) 0xBC, (byte) 0xDF, (byte) 0xF1
+  };
+
+  @Benchmark
+  public List<byte[]> desGenKey() {
+    return new DESGenKey().genKey(DES_KEY);
+  }
+
+  @Benchmark
+  public List<byte[]> dealGenKey(Keys keys) {
+    return new DEALGenKey(keys.keyLength).genKey(keys.key);
+  }
+
+  @Benchmark
+  public long[] rc5GenKey(Keys keys, RC5Words words) {
+    return new RC5GenKey(words.w, 12, keys.keyLength).genKey(keys.key);
+  }
+
+  @Benchmark
+  public long[] loki97GenKey(Keys keys, Boxes boxes) {
+    return new LOKI97GenKey(keys.keyLength, new LOKI97FeistelFunction(boxes.s1, boxes.s2)).genKey(keys.key);
+  }
+
+  @Benchmark
+  public byte[] initSbox1() {
+    return initS1();
+  }
+
+  @Benchmark
+  public byte[] initSbox2() {
+    return initS2();
+  }
+}
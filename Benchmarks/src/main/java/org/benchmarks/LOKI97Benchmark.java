@@ -0,0 +1,101 @@
+package org.benchmarks;
+
+import org.client.crypto.loki97.LOKI97;
+import org.client.crypto.loki97.impl.LOKI97FeistelFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.client.crypto.enums.IndexingRule.LOWEST0;
+import static org.client.crypto.loki97.boxes.Sboxes.initS1;
+import static org.client.crypto.loki97.boxes.Sboxes.initS2;
+import static org.client.crypto.operations.BitOperations.getBits;
+import static org.client.crypto.permutations.Permutations.rearrange;
+import static org.client.crypto.permutations.Permutations.toArray;
+import static org.client.crypto.permutations.matrices.MLOKI97.LOKI97Permutation;
+
+/// Раундовая функция LOKI97: таблицы PS (Sa и P за 8 обращений) против Sa с побитовой перестановкой
+/// Permutations.rearrange, как раньше. Плюс шифрование блока целиком.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LOKI97Benchmark {
+  private static final int[] P = toArray(LOKI97Permutation);
+
+  private byte[] S1;
+  private byte[] S2;
+  private LOKI97FeistelFunction f;
+  private LOKI97 loki97;
+  private byte[] buffer;
+  private long A;
+  private long B;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    S1 = initS1();
+    S2 = initS2();
+    f = new LOKI97FeistelFunction(S1, S2);
+
+    byte[] key = new byte[32];
+    for (int i = 0; i < key.length; i++) {
+      key[i] = (byte) i;
+    }
+    loki97 = new LOKI97(key, S1, S2);
+
+    buffer = new byte[loki97.getBlockSize()];
+    A = 0x0123456789ABCDEFL;
+    B = 0xFEDCBA9876543210L;
+  }
+
+  @Benchmark
+  public long roundFunction() {
+    A = f.encrypt(A, B);
+    return A;
+  }
+
+  /// Прежняя схема: Sa, затем перестановка P по одному биту
+  @Benchmark
+  public long roundFunctionBitwiseP() {
+    A = Sb(rearrange(Sa(KP(A, B)), 64, P, LOWEST0), B);
+    return A;
+  }
+
+  @Benchmark
+  public byte[] encryptBlock() {
+    loki97.encryptBlock(buffer, 0, buffer, 0);
+    return buffer;
+  }
+
+  private static long KP(long A, long B) {
+    int Al = (int) (A >>> 32);
+    int Ar = (int) A;
+    int SKr = (int) B;
+
+    return ((long) ((Al & ~SKr) | (Ar & SKr)) << 32) | (((Ar & ~SKr) | (Al & SKr)) & 0xFFFFFFFFL);
+  }
+
+  private long Sa(long A) {
+    return Byte.toUnsignedLong(S1[(int) ((getBits(A, 4, 0) << 8) | getBits(A, 63, 56))]) << 56
+         | Byte.toUnsignedLong(S2[(int) getBits(A, 58, 48)]) << 48
+         | Byte.toUnsignedLong(S1[(int) getBits(A, 52, 40)]) << 40
+         | Byte.toUnsignedLong(S2[(int) getBits(A, 42, 32)]) << 32
+         | Byte.toUnsignedLong(S2[(int) getBits(A, 34, 24)]) << 24
+         | Byte.toUnsignedLong(S1[(int) getBits(A, 28, 16)]) << 16
+         | Byte.toUnsignedLong(S2[(int) getBits(A, 18, 8)]) << 8
+         | Byte.toUnsignedLong(S1[(int) getBits(A, 12, 0)]);
+  }
+
+  private long Sb(long blocks, long B) {
+    return Byte.toUnsignedLong(S2[(int) (getBits(B, 63, 61) << 8 | getBits(blocks, 63, 56))]) << 56
+         | Byte.toUnsignedLong(S2[(int) (getBits(B, 60, 58) << 8 | getBits(blocks, 55, 48))]) << 48
+         | Byte.toUnsignedLong(S1[(int) (getBits(B, 57, 53) << 8 | getBits(blocks, 47, 40))]) << 40
+         | Byte.toUnsignedLong(S1[(int) (getBits(B, 52, 48) << 8 | getBits(blocks, 39, 32))]) << 32
+         | Byte.toUnsignedLong(S2[(int) (getBits(B, 47, 45) << 8 | getBits(blocks, 31, 24))]) << 24
+         | Byte.toUnsignedLong(S2[(int) (getBits(B, 44, 42) << 8 | getBits(blocks, 23, 16))]) << 16
+         | Byte.toUnsignedLong(S1[(int) (getBits(B, 41, 37) << 8 | getBits(blocks, 15, 8))]) << 8
+         | Byte.toUnsignedLong(S1[(int) (getBits(B, 36, 32) << 8 | getBits(blocks, 7, 0))]);
+  }
+}
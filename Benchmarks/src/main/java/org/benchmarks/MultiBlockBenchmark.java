@@ -0,0 +1,77 @@
+package org.benchmarks;
+
+import org.client.crypto.SymmetricEncryption;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/// Шифрование независимых блоков: по одному через encryptBlock против encryptBlocks, которые
+/// используют режимы ECB, CTR и RandomDelta. encryptBlocks измеряется дважды: без Vector API
+/// (скалярный запасной путь) и с --add-modules jdk.incubator.vector (ядра RC5 на Vector API).
+/// DES и DEAL идут через BitslicedDES в обоих случаях.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MultiBlockBenchmark {
+  @Param
+  public CipherType cipher;
+
+  @Param({"64"})
+  public int sizeKb;
+
+  private SymmetricEncryption encryption;
+  private int blockSize;
+  private int blockCount;
+
+  private byte[] data;
+  private byte[] output;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+
+    encryption = cipher.create(key);
+    blockSize = encryption.getBlockSize();
+
+    data = new byte[sizeKb << 10];
+    new Random(42).nextBytes(data);
+
+    blockCount = data.length / blockSize;
+    output = new byte[data.length];
+  }
+
+  @Benchmark
+  public byte[] singleBlocks(ByteCounter counter) {
+    for (int k = 0; k < blockCount; k++) {
+      encryption.encryptBlock(data, k * blockSize, output, k * blockSize);
+    }
+
+    counter.add(data.length, blockSize);
+
+    return output;
+  }
+
+  @Benchmark
+  public byte[] multiBlock(ByteCounter counter) {
+    encryption.encryptBlocks(data, 0, blockCount, output, 0);
+
+    counter.add(data.length, blockSize);
+
+    return output;
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+  public byte[] multiBlockVector(ByteCounter counter) {
+    encryption.encryptBlocks(data, 0, blockCount, output, 0);
+
+    counter.add(data.length, blockSize);
+
+    return output;
+  }
+}
@@ -0,0 +1,68 @@
+package org.benchmarks;
+
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.modes.Packing;
+import org.client.crypto.operations.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/// Генерация IV и набивки ISO10126 из нескольких потоков сразу: new SecureRandom() на каждый вызов,
+/// как было раньше, против общего RandomSource. Число потоков задаётся стандартным -t.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RandomBenchmark {
+  @Param({"8", "16"})
+  public int blockSize;
+
+  private Packing packing;
+  private byte[] tail;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    packing = new Packing(blockSize, PackingMode.ISO10126);
+    tail = new byte[blockSize / 4];
+  }
+
+  @Benchmark
+  public byte[] ivNewSecureRandom() {
+    byte[] IV = new byte[blockSize];
+    new SecureRandom().nextBytes(IV);
+
+    return IV;
+  }
+
+  @Benchmark
+  public byte[] ivRandomSource() {
+    byte[] IV = new byte[blockSize];
+    RandomSource.nextBytes(IV);
+
+    return IV;
+  }
+
+  /// Прежний iso10126Fill: свой SecureRandom и nextInt(256) на каждый байт
+  @Benchmark
+  public byte[] paddingNewSecureRandom() {
+    byte[] res = new byte[blockSize];
+    System.arraycopy(tail, 0, res, 0, tail.length);
+
+    SecureRandom secureRandom = new SecureRandom();
+    for (int i = tail.length; i < blockSize - 1; ++i) {
+      res[i] = (byte) (secureRandom.nextInt(256));
+    }
+    res[blockSize - 1] = (byte) (blockSize - tail.length);
+
+    return res;
+  }
+
+  @Benchmark
+  public byte[] paddingRandomSource() {
+    return packing.fill(tail);
+  }
+}
@@ -13,7 +13,6 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import lombok.*;
 import lombok.extern.log4j.Log4j2;
-import org.client.crypto.SymmetricAlgorithm;
 import org.client.dto.*;
 import org.client.models.ChatSettings;
 import org.client.models.Message;
@@ -33,9 +32,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.stream.Stream;
@@ -48,8 +45,6 @@ import static org.client.services.KeyService.getInvitationFilePath;
 @Log4j2
 @Controller
 public class UserController {
-  private final Map<String, SymmetricAlgorithm> encryptionAlgorithms = new HashMap<>();
-
   private final MessageService messageService = new MessageService();
   private final ChatService chatService = new ChatService();
   private final FileService fileService = new FileService();
@@ -96,6 +91,8 @@ public class UserController {
         Files.createDirectories(userChatDir);
       }
 
+      keyService.loadConfigs(username);
+
       try (Stream<Path> paths = Files.list(userChatDir)) {
         paths.filter(Files::isRegularFile)
                 .filter(p -> p.getFileName().toString().endsWith("_chat.txt"))
@@ -163,7 +160,7 @@ public class UserController {
     }
 
     try {
-      chatFile = chatService.openChat(username, recipientName, chatListView, encryptionAlgorithms);
+      chatFile = chatService.openChat(username, recipientName, chatListView);
 
       if (!keyService.isKeyNull(username, recipientName)) {
         messageControls.setVisible(true);
@@ -225,9 +222,9 @@ public class UserController {
       String text = msg.getJsonText();
 
       if (type.equals("ChatMessage")) {
-        chatService.interlocutorParseAndWriteMessage(username, text, chatListView, chatFile, encryptionAlgorithms);
+        chatService.interlocutorParseAndWriteMessage(username, text, chatListView, chatFile);
       } else if (type.equals("ChatFileMessage")) {
-        chatService.interlocutorParseAndWriteFileMessage(username, text, chatListView, chatFile, encryptionAlgorithms);
+        chatService.interlocutorParseAndWriteFileMessage(username, text, chatListView, chatFile);
       } else if (type.equals("Invitation")) {
         InvitationController.InvitationStatus status = invitationController.processInvitation(username, text);
 
@@ -296,12 +293,12 @@ public class UserController {
 
     if (message != null && !message.trim().isEmpty()) {
       messageService.sendAsync(username, recipient, message,
-              encryptionAlgorithms, authToken, chatFile, chatListView, messageLabel, chatService);
+              authToken, chatFile, chatListView, messageLabel, chatService);
     }
 
     if (curAttachedFile != null) {
       messageService.sendFileAsync(username, recipient, curAttachedFile,
-              encryptionAlgorithms, authToken, chatFile, chatListView, messageLabel, chatService);
+              authToken, chatFile, chatListView, messageLabel, chatService);
     }
 
     curAttachedFile = null;
@@ -412,7 +409,6 @@ public class UserController {
 
   private void deleteAndClearChat() {
     chatService.deleteChat(username, recipientName);
-    encryptionAlgorithms.remove(recipientName);
 
     chatListView.getItems().clear();
     messageControls.setVisible(false);
@@ -454,6 +450,7 @@ public class UserController {
 
   public void shutdown() {
     stopChatUpdates();
+    keyService.stopWatchingConfigs();
 
     try {
       scheduler.shutdown();
@@ -5,25 +5,42 @@ import org.client.crypto.async.EncryptionProgress;
 import org.client.crypto.block.*;
 import org.client.crypto.enums.EncryptOrDecrypt;
 import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.FileAccessMode;
 import org.client.crypto.enums.PackingMode;
+import org.client.crypto.modes.Counter;
 import org.client.crypto.modes.Packing;
+import org.client.crypto.operations.RandomSource;
+import org.client.crypto.stream.CipherContext;
+import org.client.crypto.stream.CipherInputStream;
+import org.client.crypto.stream.CipherOutputStream;
+import org.client.crypto.stream.StreamTransform;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
 import java.math.BigInteger;
-import java.security.SecureRandom;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
 
-import static org.client.crypto.operations.ArrayOperations.listToArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
 import static org.client.crypto.operations.BitOperations.xor;
 import static org.client.crypto.enums.EncryptOrDecrypt.*;
 
 public class SymmetricAlgorithm {
+  // Участок данных одной задачи параллельных режимов: помещается в L2 вместе с таблицами шифра
+  private static final int SPAN_SIZE = 1 << 16;
+
   private final SymmetricEncryption symmetricEncryption;
   private final EncryptionMode encryptionMode;
 
@@ -33,7 +50,15 @@ public class SymmetricAlgorithm {
   private final byte[] IV;
 
   private BigInteger RD = BigInteger.valueOf(1);
-  private final BigInteger rdMax;
+
+  private FileAccessMode fileAccessMode = FileAccessMode.BUFFERED;
+  private ForkJoinPool pool = Workers.POOL;
+
+  /// Общий пул для всех экземпляров, отдельный от ForkJoinPool.commonPool(): шифрование не занимает
+  /// потоки, на которых работают CompletableFuture и параллельные стримы остального клиента
+  private static class Workers {
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+  }
 
   public SymmetricAlgorithm(SymmetricEncryption symmetricEncryption, EncryptionMode encryptionMode, PackingMode packingMode) {
     this.symmetricEncryption = symmetricEncryption;
@@ -41,9 +66,7 @@ public class SymmetricAlgorithm {
     blockSize = symmetricEncryption.getBlockSize();
 
     this.IV = new byte[blockSize];
-    new SecureRandom().nextBytes(IV);
-
-    rdMax = BigInteger.valueOf(2).pow(8 * blockSize);
+    RandomSource.nextBytes(IV);
 
     packing = new Packing(blockSize, packingMode);
   }
@@ -60,8 +83,6 @@ public class SymmetricAlgorithm {
     this.IV = new byte[blockSize];
     System.arraycopy(IV, 0, this.IV, 0, blockSize);
 
-    rdMax = BigInteger.valueOf(2).pow(8 * blockSize);
-
     packing = new Packing(blockSize, packingMode);
   }
 
@@ -74,16 +95,22 @@ public class SymmetricAlgorithm {
     this.IV = new byte[blockSize];
     System.arraycopy(IV, 0, this.IV, 0, blockSize);
 
-    rdMax = BigInteger.valueOf(2).pow(8 * blockSize);
-
     this.RD = delta;
 
     packing = new Packing(blockSize, packingMode);
   }
 
+  public void setFileAccessMode(FileAccessMode fileAccessMode) {
+    this.fileAccessMode = fileAccessMode;
+  }
+
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
   public CancellableCompletableFuture<Void> encryptAsync(byte[] input, byte[] output) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.runAsync(() ->
             encrypt(input, output, cancelled, progress), cancelled, progress);
@@ -91,7 +118,7 @@ public class SymmetricAlgorithm {
 
   public CancellableCompletableFuture<Void> encryptAsync(String inputFile, String outputFile) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.runAsync(() ->
             encrypt(inputFile, outputFile, cancelled, progress), cancelled, progress);
@@ -99,7 +126,7 @@ public class SymmetricAlgorithm {
 
   public CancellableCompletableFuture<byte[]> encryptAsync(byte[] input) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.supplyAsync(() ->
             encrypt(input, cancelled, progress), cancelled, progress);
@@ -107,7 +134,7 @@ public class SymmetricAlgorithm {
 
   public CancellableCompletableFuture<Void> decryptAsync(byte[] input, byte[] output) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.runAsync(() ->
             decrypt(input, output, cancelled, progress), cancelled, progress);
@@ -115,7 +142,7 @@ public class SymmetricAlgorithm {
 
   public CancellableCompletableFuture<Void> decryptAsync(String inputFile, String outputFile) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.runAsync(() ->
             decrypt(inputFile, outputFile, cancelled, progress), cancelled, progress);
@@ -123,12 +150,28 @@ public class SymmetricAlgorithm {
 
   public CancellableCompletableFuture<byte[]> decryptAsync(byte[] input) {
     AtomicBoolean cancelled = new AtomicBoolean(false);
-    EncryptionProgress progress = new EncryptionProgress(new AtomicLong(0), new AtomicLong(0));
+    EncryptionProgress progress = new EncryptionProgress();
 
     return CancellableCompletableFuture.supplyAsync(() ->
             decrypt(input, cancelled, progress), cancelled, progress);
   }
 
+  public CancellableCompletableFuture<Long> encryptAsync(MemorySegment src, MemorySegment dst) {
+    AtomicBoolean cancelled = new AtomicBoolean(false);
+    EncryptionProgress progress = new EncryptionProgress();
+
+    return CancellableCompletableFuture.supplyAsync(() ->
+            encrypt(src, dst, cancelled, progress), cancelled, progress);
+  }
+
+  public CancellableCompletableFuture<Long> decryptAsync(MemorySegment src, MemorySegment dst) {
+    AtomicBoolean cancelled = new AtomicBoolean(false);
+    EncryptionProgress progress = new EncryptionProgress();
+
+    return CancellableCompletableFuture.supplyAsync(() ->
+            decrypt(src, dst, cancelled, progress), cancelled, progress);
+  }
+
   public byte[] encrypt(byte[] input) {
     return encrypt(input, (AtomicBoolean) null, null);
   }
@@ -141,8 +184,8 @@ public class SymmetricAlgorithm {
     encrypt(inputFile, outputFile, null, null);
   }
 
-  public void decrypt(byte[] input, byte[] output) {
-    decrypt(input, output, null, null);
+  public int decrypt(byte[] input, byte[] output) {
+    return decrypt(input, output, null, null);
   }
 
   public byte[] decrypt(byte[] input) {
@@ -156,7 +199,7 @@ public class SymmetricAlgorithm {
   public byte[] encrypt(byte[] input, AtomicBoolean cancelled, EncryptionProgress progress) {
     int inputLength = input.length;
 
-    byte[] output = new byte[getBlockCount(inputLength, ENCRYPT) * blockSize];
+    byte[] output = new byte[Math.toIntExact(getBlockCount(inputLength, ENCRYPT) * blockSize)];
 
     encrypt(input, output, cancelled, progress);
 
@@ -184,62 +227,357 @@ public class SymmetricAlgorithm {
     fileErrorCheck(inputFile, outputFile);
     long inputLength = new File(inputFile).length();
 
-    ReadBlock readBlock = new FileRead(inputFile, blockSize, packing::fill);
-    WriteBlock writeBlock = new FileWrite(outputFile, blockSize);
+    long blockCount = getBlockCount(inputLength, ENCRYPT);
 
-    encryptionMode(readBlock, writeBlock, getBlockCount(inputLength, ENCRYPT), ENCRYPT, cancelled, progress);
+    try (ReadBlock readBlock = fileAccessMode == FileAccessMode.MAPPED ?
+                 new MappedRead(inputFile, blockSize, packing::fill) :
+                 new FileRead(inputFile, blockSize, packing::fill);
+         WriteBlock writeBlock = fileAccessMode == FileAccessMode.MAPPED ?
+                 new MappedWrite(outputFile, blockSize, blockCount * blockSize) :
+                 new FileWrite(outputFile, blockSize)) {
+      encryptionMode(readBlock, writeBlock, blockCount, ENCRYPT, cancelled, progress);
+    }
   }
 
-  public void decrypt(byte[] input, byte[] output, AtomicBoolean cancelled, EncryptionProgress progress) {
+  /// Расшифровывает input в начало output и возвращает длину открытого текста.
+  /// Блоки пишутся прямо в output, набивка снимается один раз, с последнего блока
+  public int decrypt(byte[] input, byte[] output, AtomicBoolean cancelled, EncryptionProgress progress) {
     int inputLength = input.length;
 
     if (inputLength == 0) {
       throw new IllegalArgumentException("Input is empty");
     }
 
-    if (inputLength != output.length) {
+    long blockCount = getBlockCount(inputLength, DECRYPT);
+    int length = Math.toIntExact(blockCount * blockSize);
+
+    if (output.length < length) {
       throw new IllegalArgumentException("Invalid output length");
     }
 
     ReadBlock readBlock = new ArrayRead(input, blockSize);
-    WriteBlock writeBlock = new ArrayWrite(output, blockSize, packing::unpack);
+    WriteBlock writeBlock = new ArrayWrite(output, blockSize);
 
-    encryptionMode(readBlock, writeBlock, getBlockCount(inputLength, DECRYPT), DECRYPT, cancelled, progress);
+    encryptionMode(readBlock, writeBlock, blockCount, DECRYPT, cancelled, progress);
+
+    // Хвост короче блока отбрасывается, и набивку с предыдущего блока тогда не снимают
+    return inputLength % blockSize == 0 ? unpackTail(output, length) : length;
   }
 
   public byte[] decrypt(byte[] input, AtomicBoolean cancelled, EncryptionProgress progress) {
-    int inputLength = input.length;
+    byte[] output = new byte[Math.toIntExact(getBlockCount(input.length, DECRYPT) * blockSize)];
+
+    int length = decrypt(input, output, cancelled, progress);
+
+    return length == output.length ? output : Arrays.copyOf(output, length);
+  }
+
+  public void decrypt(String inputFile, String outputFile, AtomicBoolean cancelled, EncryptionProgress progress) {
+    fileErrorCheck(inputFile, outputFile);
+    long inputLength = new File(inputFile).length();
+
+    try (ReadBlock readBlock = fileAccessMode == FileAccessMode.MAPPED ?
+                 new MappedRead(inputFile, blockSize) :
+                 new FileRead(inputFile, blockSize);
+         WriteBlock writeBlock = fileAccessMode == FileAccessMode.MAPPED ?
+                 new MappedWrite(outputFile, blockSize, inputLength, packing::unpack) :
+                 new FileWrite(outputFile, blockSize, inputLength, packing::unpack)) {
+      encryptionMode(readBlock, writeBlock, getBlockCount(inputLength, DECRYPT), DECRYPT, cancelled, progress);
+    }
+  }
+
+  /// Шифрует src.remaining() байт в dst, начиная с его позиции, и возвращает длину результата;
+  /// позиции обоих буферов сдвигаются за обработанные данные. Прямые буферы не копируются в кучу
+  /// целиком: через шифр проходят участки по SPAN_SIZE. src и dst могут быть одним буфером -
+  /// тогда блоки шифруются на месте, а блок набивки пишется за limit, если хватает capacity
+  public int encrypt(ByteBuffer src, ByteBuffer dst) {
+    int inputLength = src.remaining();
 
     if (inputLength == 0) {
       throw new IllegalArgumentException("Input is empty");
     }
 
-    List<byte[]> outputList =
-            Collections.synchronizedList(
-            new ArrayList<>(
-                    Collections.nCopies(getBlockCount(inputLength, DECRYPT), new byte[0])));
+    long blockCount = getBlockCount(inputLength, ENCRYPT);
+    int length = Math.toIntExact(blockCount * blockSize);
 
-    ReadBlock readBlock = new ArrayRead(input, blockSize);
-    WriteBlock writeBlock = new ListWrite(outputList, blockSize, inputLength, packing::unpack);
+    ReadBlock readBlock = new BufferRead(src.slice(), blockSize, packing::fill);
+    WriteBlock writeBlock = new BufferWrite(outputView(src, dst, length), blockSize);
 
-    encryptionMode(readBlock, writeBlock, getBlockCount(inputLength, DECRYPT), DECRYPT, cancelled, progress);
+    encryptionMode(readBlock, writeBlock, blockCount, ENCRYPT, null, null);
 
-    return listToArray(outputList);
+    advance(src, dst, length);
+
+    return length;
   }
 
-  public void decrypt(String inputFile, String outputFile, AtomicBoolean cancelled, EncryptionProgress progress) {
-    fileErrorCheck(inputFile, outputFile);
-    long inputLength = new File(inputFile).length();
+  /// Расшифровывает src.remaining() байт в dst; в dst нужно место под все блоки вместе с набивкой
+  public int decrypt(ByteBuffer src, ByteBuffer dst) {
+    int inputLength = src.remaining();
+
+    if (inputLength == 0) {
+      throw new IllegalArgumentException("Input is empty");
+    }
+
+    long blockCount = getBlockCount(inputLength, DECRYPT);
+    int length = Math.toIntExact(blockCount * blockSize);
+    ByteBuffer output = outputView(src, dst, length);
+
+    encryptionMode(new BufferRead(src.slice(), blockSize), new BufferWrite(output, blockSize),
+            blockCount, DECRYPT, null, null);
+
+    if (length > 0 && inputLength % blockSize == 0) {
+      byte[] last = new byte[blockSize];
+      output.get(length - blockSize, last);
+      length += packing.unpack(last).length - blockSize;
+    }
+
+    advance(src, dst, length);
+
+    return length;
+  }
+
+  /// То же для сегментов целиком: результат пишется в начало dst. Сегменты читаются напрямую,
+  /// по long-смещениям, поэтому могут быть больше 2 ГБ. Сегменты могут начинаться с одного
+  /// адреса - тогда блоки обрабатываются на месте. Участки обрабатывают потоки пула,
+  /// поэтому сегменты из Arena.ofConfined() не подходят
+  public long encrypt(MemorySegment src, MemorySegment dst) {
+    return encrypt(src, dst, null, null);
+  }
+
+  public long decrypt(MemorySegment src, MemorySegment dst) {
+    return decrypt(src, dst, null, null);
+  }
+
+  public long encrypt(MemorySegment src, MemorySegment dst, AtomicBoolean cancelled, EncryptionProgress progress) {
+    long inputLength = src.byteSize();
+
+    if (inputLength == 0) {
+      throw new IllegalArgumentException("Input is empty");
+    }
+
+    long blockCount = getBlockCount(inputLength, ENCRYPT);
+    long length = blockCount * blockSize;
+
+    if (dst.byteSize() < length) {
+      throw new IllegalArgumentException("Output is too small");
+    }
+
+    encryptionMode(new SegmentRead(src, blockSize, packing::fill), new SegmentWrite(dst, blockSize),
+            blockCount, ENCRYPT, cancelled, progress);
+
+    return length;
+  }
+
+  public long decrypt(MemorySegment src, MemorySegment dst, AtomicBoolean cancelled, EncryptionProgress progress) {
+    long inputLength = src.byteSize();
+
+    if (inputLength == 0) {
+      throw new IllegalArgumentException("Input is empty");
+    }
+
+    long blockCount = getBlockCount(inputLength, DECRYPT);
+    long length = blockCount * blockSize;
+
+    if (dst.byteSize() < length) {
+      throw new IllegalArgumentException("Output is too small");
+    }
+
+    encryptionMode(new SegmentRead(src, blockSize), new SegmentWrite(dst, blockSize),
+            blockCount, DECRYPT, cancelled, progress);
+
+    if (length > 0 && inputLength % blockSize == 0) {
+      byte[] last = dst.asSlice(length - blockSize, blockSize).toArray(JAVA_BYTE);
+      length += packing.unpack(last).length - blockSize;
+    }
+
+    return length;
+  }
+
+  /// Потоковое шифрование: данные обрабатываются по мере записи или чтения, в памяти держится
+  /// один буфер, а набивка добавляется при закрытии или в конце входного потока.
+  /// Результат совпадает с encrypt и decrypt для тех же данных целиком в любом режиме
+  public OutputStream encryptStream(OutputStream output) {
+    return new CipherOutputStream(output, new StreamChain(IV, ENCRYPT));
+  }
+
+  public OutputStream decryptStream(OutputStream output) {
+    return new CipherOutputStream(output, new StreamChain(IV, DECRYPT));
+  }
+
+  public InputStream encryptStream(InputStream input) {
+    return new CipherInputStream(input, new StreamChain(IV, ENCRYPT));
+  }
+
+  public InputStream decryptStream(InputStream input) {
+    return new CipherInputStream(input, new StreamChain(IV, DECRYPT));
+  }
+
+  public WritableByteChannel encryptChannel(WritableByteChannel output) {
+    return Channels.newChannel(encryptStream(Channels.newOutputStream(output)));
+  }
+
+  public WritableByteChannel decryptChannel(WritableByteChannel output) {
+    return Channels.newChannel(decryptStream(Channels.newOutputStream(output)));
+  }
+
+  public ReadableByteChannel encryptChannel(ReadableByteChannel input) {
+    return Channels.newChannel(encryptStream(Channels.newInputStream(input)));
+  }
+
+  public ReadableByteChannel decryptChannel(ReadableByteChannel input) {
+    return Channels.newChannel(decryptStream(Channels.newInputStream(input)));
+  }
+
+  /// Контекст для данных, которые приходят частями: update отдаёт готовые блоки, doFinal - остаток
+  /// с набивкой. Каждый контекст начинает цепочку заново со своего IV (по умолчанию - IV алгоритма)
+  public CipherContext encryptContext() {
+    return encryptContext(IV);
+  }
+
+  public CipherContext encryptContext(byte[] IV) {
+    return new CipherContext(new StreamChain(checkIV(IV), ENCRYPT));
+  }
+
+  public CipherContext decryptContext() {
+    return decryptContext(IV);
+  }
+
+  public CipherContext decryptContext(byte[] IV) {
+    return new CipherContext(new StreamChain(checkIV(IV), DECRYPT));
+  }
 
-    ReadBlock readBlock = new FileRead(inputFile, blockSize);
-    WriteBlock writeBlock = new FileWrite(outputFile, blockSize, inputLength, packing::unpack);
+  /// Длина шифротекста для открытого текста длины inputLength
+  public long getEncryptedLength(long inputLength) {
+    return getBlockCount(inputLength, ENCRYPT) * blockSize;
+  }
+
+  /// Шифрование независимых сообщений, у каждого свой IV (ключ, режим и набивка общие).
+  /// В CBC, CFB, PCBC и OFB блоки одного сообщения зависят друг от друга, а блоки разных - нет:
+  /// сообщения делятся между ядрами, и на каждом ядре их цепочки продвигаются по очереди, блок за блоком.
+  /// Результат i-го сообщения совпадает с encrypt на SymmetricAlgorithm с IVs.get(i)
+  public List<byte[]> encryptBatch(List<byte[]> IVs, List<byte[]> inputs) {
+    return batch(IVs, inputs, ENCRYPT);
+  }
+
+  public List<byte[]> decryptBatch(List<byte[]> IVs, List<byte[]> inputs) {
+    return batch(IVs, inputs, DECRYPT);
+  }
+
+  private List<byte[]> batch(List<byte[]> IVs, List<byte[]> inputs, EncryptOrDecrypt encryptOrDecrypt) {
+    int n = inputs.size();
+
+    if (IVs.size() != n) {
+      throw new IllegalArgumentException("Number of IVs and inputs must be equal");
+    }
+
+    Chain[] chains = new Chain[n];
+    ReadBlock[] readBlocks = new ReadBlock[n];
+    WriteBlock[] writeBlocks = new WriteBlock[n];
+    byte[][] outputs = new byte[n][];
+    long[] blockCounts = new long[n];
+
+    for (int j = 0; j < n; j++) {
+      byte[] input = inputs.get(j);
+
+      if (input.length == 0) {
+        throw new IllegalArgumentException("Input is empty");
+      }
+
+      checkIV(IVs.get(j));
+
+      blockCounts[j] = getBlockCount(input.length, encryptOrDecrypt);
+      outputs[j] = new byte[Math.toIntExact(blockCounts[j] * blockSize)];
+      chains[j] = new Chain(IVs.get(j), encryptOrDecrypt);
+      readBlocks[j] = encryptOrDecrypt == ENCRYPT ?
+              new ArrayRead(input, blockSize, packing::fill) :
+              new ArrayRead(input, blockSize);
+      writeBlocks[j] = new ArrayWrite(outputs[j], blockSize);
+    }
+
+    int[][] groups = balance(blockCounts, Math.min(n, pool.getParallelism()));
+
+    parallel(groups.length, g -> {
+      int[] group = groups[(int) g];
+      byte[][] buffers = new byte[group.length][blockSize];
+
+      long maxCount = 0;
+      for (int j : group) {
+        maxCount = Math.max(maxCount, blockCounts[j]);
+      }
+
+      for (long i = 0; i < maxCount; i++) {
+        for (int k = 0; k < group.length; k++) {
+          int j = group[k];
 
-    encryptionMode(readBlock, writeBlock, getBlockCount(inputLength, DECRYPT), DECRYPT, cancelled, progress);
+          if (i < blockCounts[j]) {
+            readBlocks[j].get(i, buffers[k]);
+            chains[j].step(i, buffers[k]);
+            writeBlocks[j].put(i, buffers[k]);
+          }
+        }
+      }
+    });
+
+    List<byte[]> res = new ArrayList<>(n);
+    for (int j = 0; j < n; j++) {
+      byte[] output = outputs[j];
+      // Как и в decrypt: при хвосте короче блока набивку с последнего целого блока не снимают
+      int length = encryptOrDecrypt == DECRYPT && inputs.get(j).length % blockSize == 0 ?
+              unpackTail(output, output.length) : output.length;
+      res.add(length == output.length ? output : Arrays.copyOf(output, length));
+    }
+
+    return res;
   }
 
-  private void encryptionMode(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
+  /// Раскладывает сообщения по groupCount группам с примерно равным числом блоков:
+  /// от длинных к коротким, каждое - в наименее загруженную группу
+  private static int[][] balance(long[] blockCounts, int groupCount) {
+    Integer[] order = new Integer[blockCounts.length];
+    for (int j = 0; j < order.length; j++) {
+      order[j] = j;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(blockCounts[b], blockCounts[a]));
+
+    List<List<Integer>> groups = new ArrayList<>(groupCount);
+    long[] loads = new long[groupCount];
+    for (int g = 0; g < groupCount; g++) {
+      groups.add(new ArrayList<>());
+    }
+
+    for (int j : order) {
+      int min = 0;
+      for (int g = 1; g < groupCount; g++) {
+        if (loads[g] < loads[min]) {
+          min = g;
+        }
+      }
+
+      groups.get(min).add(j);
+      loads[min] += blockCounts[j];
+    }
+
+    return groups.stream().map(group -> group.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+  }
+
+  /// Снимает набивку с последнего блока output[0, length) и возвращает длину открытого текста.
+  /// Набивка всегда в конце блока, поэтому данные остаются на месте, а хвост обнуляется
+  private int unpackTail(byte[] output, int length) {
+    if (length == 0) {
+      return 0;
+    }
+
+    int offset = length - blockSize;
+    int unpacked = offset + packing.unpack(Arrays.copyOfRange(output, offset, length)).length;
+    Arrays.fill(output, unpacked, length, (byte) 0);
+
+    return unpacked;
+  }
+
+  private void encryptionMode(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
                               EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
     if (progress != null) {
+      progress.setBlockSize(blockSize);
       progress.setTotal(blockCount);
     }
 
@@ -268,8 +606,40 @@ public class SymmetricAlgorithm {
     }
   }
 
-  private int getBlockCount(long length, EncryptOrDecrypt encryptOrDecrypt) {
-    int blockCount = (int) (length / blockSize);
+  /// length байт dst с его позиции. Для того же буфера, что и src, доступно место до capacity
+  private static ByteBuffer outputView(ByteBuffer src, ByteBuffer dst, int length) {
+    int position = dst.position();
+    int available = (src == dst ? dst.capacity() : dst.limit()) - position;
+
+    if (available < length) {
+      throw new IllegalArgumentException("Output is too small");
+    }
+
+    return dst.duplicate().clear().limit(position + length).position(position).slice();
+  }
+
+  private static void advance(ByteBuffer src, ByteBuffer dst, int length) {
+    int position = dst.position() + length;
+
+    if (src == dst) {
+      dst.limit(Math.max(dst.limit(), position));
+    } else {
+      src.position(src.limit());
+    }
+
+    dst.position(position);
+  }
+
+  private byte[] checkIV(byte[] IV) {
+    if (IV.length != blockSize) {
+      throw new IllegalArgumentException("IV must be " + blockSize + " bytes");
+    }
+
+    return IV;
+  }
+
+  private long getBlockCount(long length, EncryptOrDecrypt encryptOrDecrypt) {
+    long blockCount = length / blockSize;
     if (encryptOrDecrypt == ENCRYPT && packing.getMode() != PackingMode.NO) {
       blockCount++;
     }
@@ -279,251 +649,365 @@ public class SymmetricAlgorithm {
 
   /// Encryption Modes
 
-  private void ECB(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
+  private void ECB(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
                    EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function = encryptOrDecrypt == ENCRYPT ?
-            symmetricEncryption::encryption : symmetricEncryption::decryption;
+    spans(readBlock, writeBlock, blockCount, cancelled, progress, (_, count, blocks) -> {
+      if (encryptOrDecrypt == ENCRYPT) {
+        symmetricEncryption.encryptBlocks(blocks, 0, count, blocks, 0);
+      } else {
+        symmetricEncryption.decryptBlocks(blocks, 0, count, blocks, 0);
+      }
+    });
+  }
 
-    try {
-      IntStream.range(0, blockCount).parallel().forEach(i -> {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
-        }
+  private void CBC(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                   EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
+    if (encryptOrDecrypt == ENCRYPT) {
+      sequential(readBlock, writeBlock, blockCount, ENCRYPT, cancelled, progress);
+    } else {
+      // Блоки участка расшифровываются вместе, поэтому шифротекст для XOR копируется заранее
+      LongFunction<byte[]> previous = previousBlocks(readBlock, writeBlock, blockCount);
+
+      spans(readBlock, writeBlock, blockCount, cancelled, progress, (from, count, blocks) -> {
+        byte[] prevC = previous.apply(from);
+        byte[] C = Arrays.copyOf(blocks, (count - 1) * blockSize);
 
-        byte[] buffer = readBlock.get(i);
-        writeBlock.put(i, function.apply(buffer));
+        symmetricEncryption.decryptBlocks(blocks, 0, count, blocks, 0);
 
-        if (progress != null) progress.increment();
+        xor(blocks, 0, prevC, 0, blockSize);
+        xor(blocks, blockSize, C, 0, C.length);
       });
-    } catch (Exception _) {
-      throw new RuntimeException("Stopped");
     }
   }
 
-  private void CBC(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
+  private void OFB(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
                    EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function;
-
-    byte[] first = readBlock.get(0);
+    sequential(readBlock, writeBlock, blockCount, encryptOrDecrypt, cancelled, progress);
+  }
 
+  private void CFB(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                   EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
     if (encryptOrDecrypt == ENCRYPT) {
-      function = symmetricEncryption::encryption;
-
-      byte[] c = function.apply(xor(first, IV));
-      writeBlock.put(0, c);
-      if (progress != null) progress.increment();
-
-      for (int i = 1; i < blockCount; i++) {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
-        }
-
-        byte[] m = readBlock.get(i);
-        c = function.apply(xor(m, c));
-
-        writeBlock.put(i, c);
-
-        if (progress != null) progress.increment();
-      }
+      sequential(readBlock, writeBlock, blockCount, ENCRYPT, cancelled, progress);
     } else {
-      function = symmetricEncryption::decryption;
-
-      writeBlock.put(0, xor(function.apply(first), IV));
-      if (progress != null) progress.increment();
-
-      try {
-        IntStream.range(1, blockCount).parallel().forEach(i -> {
-          if (cancelled != null && cancelled.get()) {
-            throw new RuntimeException("Stopped");
-          }
-
-          byte[] c = readBlock.get(i);
-          byte[] prevC = readBlock.get(i - 1);
+      // Гамма участка - шифр c(from - 1), ..., c(from + count - 2), шифруется одной пачкой
+      LongFunction<byte[]> previous = previousBlocks(readBlock, writeBlock, blockCount);
 
-          writeBlock.put(i, xor(function.apply(c), prevC));
+      spans(readBlock, writeBlock, blockCount, cancelled, progress, (from, count, blocks) -> {
+        byte[] E = new byte[count * blockSize];
+        System.arraycopy(previous.apply(from), 0, E, 0, blockSize);
+        System.arraycopy(blocks, 0, E, blockSize, (count - 1) * blockSize);
 
-          if (progress != null) progress.increment();
-        });
-      } catch (Exception _) {
-        throw new RuntimeException("Stopped");
-      }
+        symmetricEncryption.encryptBlocks(E, 0, count, E, 0);
+        xor(blocks, 0, E, 0, E.length);
+      });
     }
   }
 
-  private void OFB(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
+  private void PCBC(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                    EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
+    sequential(readBlock, writeBlock, blockCount, encryptOrDecrypt, cancelled, progress);
+  }
+
+  private void CTR(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
                    EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function = symmetricEncryption::encryption;
+    Counter counter = new Counter(IV, RD);
 
-    byte[] E = IV;
+    spans(readBlock, writeBlock, blockCount, cancelled, progress, (from, count, blocks) -> {
+      byte[] E = new byte[count * blockSize];
 
-    for (int i = 0; i < blockCount; i++) {
-      if (cancelled != null && cancelled.get()) {
-        throw new RuntimeException("Stopped");
+      for (int k = 0; k < count; k++) {
+        counter.ctr(from + k, E, k * blockSize);
       }
 
-      byte[] buffer = readBlock.get(i);
-      E = function.apply(E);
+      symmetricEncryption.encryptBlocks(E, 0, count, E, 0);
+      xor(blocks, 0, E, 0, E.length);
+    });
+  }
 
-      writeBlock.put(i, xor(E, buffer));
+  private void RandomDelta(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                           EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
+    Counter counter = new Counter(IV, RD);
 
-      if (progress != null) progress.increment();
-    }
-  }
+    spans(readBlock, writeBlock, blockCount, cancelled, progress, (from, count, blocks) -> {
+      byte[] E = new byte[count * blockSize];
 
-  private void CFB(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
-                   EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function = symmetricEncryption::encryption;
+      for (int k = 0; k < count; k++) {
+        counter.randomDelta(from + k, E, k * blockSize);
+      }
 
-    byte[] first = readBlock.get(0);
+      symmetricEncryption.encryptBlocks(E, 0, count, E, 0);
+      xor(blocks, 0, E, 0, E.length);
+    });
+  }
 
-    if (encryptOrDecrypt == ENCRYPT) {
-      byte[] c = xor(function.apply(IV), first);
-      writeBlock.put(0, c);
-      if (progress != null) progress.increment();
+  /// Параллельный проход по участкам по SPAN_SIZE байт: участок читается, обрабатывается на месте
+  /// и записывается целиком, а отмена и прогресс проверяются один раз на участок, а не на блок
+  private void spans(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                     AtomicBoolean cancelled, EncryptionProgress progress, Span span) {
+    int spanBlocks = spanBlocks();
+    long spanCount = (blockCount + spanBlocks - 1) / spanBlocks;
 
-      for (int i = 1; i < blockCount; i++) {
+    try {
+      parallel(spanCount, s -> {
         if (cancelled != null && cancelled.get()) {
           throw new RuntimeException("Stopped");
         }
 
-        byte[] m = readBlock.get(i);
-        c = xor(function.apply(c), m);
+        long from = s * spanBlocks;
+        int count = (int) Math.min(spanBlocks, blockCount - from);
+        byte[] blocks = new byte[count * blockSize];
 
-        writeBlock.put(i, c);
+        readBlock.get(from, count, blocks);
+        span.process(from, count, blocks);
+        writeBlock.put(from, count, blocks);
 
-        if (progress != null) progress.increment();
-      }
-    } else {
-      writeBlock.put(0, xor(function.apply(IV), first));
-      if (progress != null) progress.increment();
+        if (progress != null) progress.add(count);
+      });
+    } catch (Exception _) {
+      throw new RuntimeException("Stopped");
+    }
+  }
 
-      try {
-        IntStream.range(1, blockCount).parallel().forEach(i -> {
-          if (cancelled != null && cancelled.get()) {
-            throw new RuntimeException("Stopped");
-          }
+  private int spanBlocks() {
+    return Math.max(1, SPAN_SIZE / blockSize);
+  }
 
-          byte[] c = readBlock.get(i);
-          byte[] prevC = readBlock.get(i - 1);
+  /// Блок шифротекста перед участком spans, начинающимся с блока from: IV для первого.
+  /// Обычно участок читает его сам, в своей задаче. При расшифровании на месте соседний участок
+  /// может успеть перезаписать этот блок, поэтому тогда все они копируются до начала работы
+  private LongFunction<byte[]> previousBlocks(ReadBlock readBlock, WriteBlock writeBlock, long blockCount) {
+    if (!readBlock.overlaps(writeBlock)) {
+      return from -> from == 0 ? IV : readBlock.get(from - 1);
+    }
 
-          writeBlock.put(i, xor(function.apply(prevC), c));
+    int spanBlocks = spanBlocks();
+    byte[][] boundaries = new byte[Math.toIntExact((blockCount + spanBlocks - 1) / spanBlocks)][];
 
-          if (progress != null) progress.increment();
-        });
-      } catch (Exception _) {
-        throw new RuntimeException("Stopped");
-      }
+    for (int s = 0; s < boundaries.length; s++) {
+      boundaries[s] = s == 0 ? IV : readBlock.get((long) s * spanBlocks - 1);
     }
+
+    return from -> boundaries[(int) (from / spanBlocks)];
   }
 
-  private void PCBC(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
-                    EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function;
+  /// Обработка count блоков участка, начиная с блока from, на месте
+  @FunctionalInterface
+  private interface Span {
+    void process(long from, int count, byte[] blocks);
+  }
 
-    byte[] first = readBlock.get(0);
+  /// task(0), ..., task(count - 1) в pool: диапазон делится пополам до отдельных задач,
+  /// свободные потоки пула забирают половины у занятых
+  private void parallel(long count, LongConsumer task) {
+    pool.invoke(new RangeTask(0, count, task));
+  }
 
-    if (encryptOrDecrypt == ENCRYPT) {
-      function = symmetricEncryption::encryption;
+  private static class RangeTask extends RecursiveAction {
+    private final long from;
+    private final long to;
+    private final LongConsumer task;
 
-      byte[] c = function.apply(xor(first, IV));
-      writeBlock.put(0, c);
-      if (progress != null) progress.increment();
+    private RangeTask(long from, long to, LongConsumer task) {
+      this.from = from;
+      this.to = to;
+      this.task = task;
+    }
 
-      for (int i = 1; i < blockCount; i++) {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        if (from < to) {
+          task.accept(from);
         }
+        return;
+      }
+
+      long middle = (from + to) >>> 1;
+      invokeAll(new RangeTask(from, middle, task), new RangeTask(middle, to, task));
+    }
+  }
 
-        byte[] m = readBlock.get(i);
-        byte[] prevM = readBlock.get(i - 1);
-        c = function.apply(xor(xor(m, c), prevM));
+  /// Последовательный проход одного потока: блок i зависит от состояния после блока i - 1
+  private void sequential(ReadBlock readBlock, WriteBlock writeBlock, long blockCount,
+                          EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
+    Chain chain = new Chain(IV, encryptOrDecrypt);
+    byte[] buffer = new byte[blockSize];
 
-        writeBlock.put(i, c);
+    // Прогресс, как и в параллельных режимах, обновляется раз на участок
+    int spanBlocks = spanBlocks();
 
-        if (progress != null) progress.increment();
+    for (long i = 0; i < blockCount; i++) {
+      if (cancelled != null && cancelled.get()) {
+        throw new RuntimeException("Stopped");
       }
-    } else {
-      function = symmetricEncryption::decryption;
 
-      byte[] m = xor(function.apply(first), IV);
-      writeBlock.put(0, m);
-      if (progress != null) progress.increment();
+      readBlock.get(i, buffer);
+      chain.step(i, buffer);
+      writeBlock.put(i, buffer);
 
-      for (int i = 1; i < blockCount; i++) {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
-        }
+      if (progress != null && (i + 1) % spanBlocks == 0) progress.add(spanBlocks);
+    }
+
+    if (progress != null) progress.add(blockCount % spanBlocks);
+  }
+
+  /// Chain для потоковых обёрток. Как и в encrypt/decrypt целых массивов, неполный хвост без набивки
+  /// отбрасывается, а при расшифровании набивка снимается с последнего целого блока
+  private class StreamChain implements StreamTransform {
+    private final EncryptOrDecrypt encryptOrDecrypt;
+    private final Chain chain;
+    private final byte[] block = new byte[blockSize];
+    private long index = 0;
 
-        byte[] c = readBlock.get(i);
-        byte[] prevC = readBlock.get(i - 1);
-        m = xor(xor(function.apply(c), prevC), m);
+    private StreamChain(byte[] IV, EncryptOrDecrypt encryptOrDecrypt) {
+      this.encryptOrDecrypt = encryptOrDecrypt;
+      chain = new Chain(IV, encryptOrDecrypt);
+    }
+
+    @Override
+    public int getBlockSize() {
+      return blockSize;
+    }
 
-        writeBlock.put(i, m);
+    @Override
+    public int ready(int length) {
+      int blocks = length / blockSize;
 
-        if (progress != null) progress.increment();
+      // При расшифровании последний целый блок ждёт конца потока
+      if (encryptOrDecrypt == DECRYPT) {
+        blocks = Math.max(0, blocks - 1);
       }
+
+      return blocks * blockSize;
     }
-  }
 
-  private void CTR(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
-                   EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function = symmetricEncryption::encryption;
-    BigInteger count = new BigInteger(IV);
+    @Override
+    public void update(byte[] data, int offset, int length) {
+      for (int k = offset; k < offset + length; k += blockSize) {
+        System.arraycopy(data, k, block, 0, blockSize);
+        chain.step(index++, block);
+        System.arraycopy(block, 0, data, k, blockSize);
+      }
+    }
 
-    try {
-      IntStream.range(0, blockCount).parallel().forEach(i -> {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
+    @Override
+    public byte[] doFinal(byte[] data, int offset, int length) {
+      if (encryptOrDecrypt == ENCRYPT) {
+        if (packing.getMode() == PackingMode.NO) {
+          return new byte[0];
         }
 
-        byte[] buffer = readBlock.get(i);
-        writeBlock.put(i, xor(buffer, function.apply(counter(count, BigInteger.valueOf(i)))));
+        System.arraycopy(packing.fill(Arrays.copyOfRange(data, offset, offset + length)), 0, block, 0, blockSize);
+        chain.step(index++, block);
 
-        if (progress != null) progress.increment();
-      });
-    } catch (Exception _) {
-      throw new RuntimeException("Stopped");
+        return block.clone();
+      }
+
+      if (length < blockSize) {
+        return new byte[0];
+      }
+
+      System.arraycopy(data, offset, block, 0, blockSize);
+      chain.step(index++, block);
+
+      // Как и в decrypt: хвост короче блока отбрасывается, и набивку с последнего целого блока не снимают
+      return length % blockSize == 0 ? packing.unpack(block.clone()) : block.clone();
     }
   }
 
-  private void RandomDelta(ReadBlock readBlock, WriteBlock writeBlock, int blockCount,
-                           EncryptOrDecrypt encryptOrDecrypt, AtomicBoolean cancelled, EncryptionProgress progress) {
-    Function<byte[], byte[]> function = symmetricEncryption::encryption;
-    BigInteger count = new BigInteger(IV);
+  /// Состояние одного потока в текущем режиме: обратная связь, начиная с IV потока.
+  /// step обрабатывает блок с номером i на месте, поэтому независимые потоки можно продвигать
+  /// по очереди, блок за блоком, не дожидаясь окончания каждого (см. encryptBatch)
+  private class Chain {
+    private final EncryptOrDecrypt encryptOrDecrypt;
+    private final byte[] feedback;
+    private final byte[] in = new byte[blockSize];
+    private final Counter counter;
+
+    private Chain(byte[] IV, EncryptOrDecrypt encryptOrDecrypt) {
+      this.encryptOrDecrypt = encryptOrDecrypt;
+      feedback = IV.clone();
+      counter = encryptionMode == EncryptionMode.CTR || encryptionMode == EncryptionMode.RandomDelta ?
+              new Counter(IV, RD) : null;
+    }
 
-    try {
-      IntStream.range(0, blockCount).parallel().forEach(i -> {
-        if (cancelled != null && cancelled.get()) {
-          throw new RuntimeException("Stopped");
+    private void step(long i, byte[] block) {
+      switch (encryptionMode) {
+        case EncryptionMode.ECB -> ECB(block);
+        case EncryptionMode.CBC -> CBC(block);
+        case EncryptionMode.CFB -> CFB(block);
+        case EncryptionMode.OFB -> OFB(block);
+        case EncryptionMode.PCBC -> PCBC(block);
+        case EncryptionMode.CTR -> {
+          counter.ctr(i, in);
+          gamma(block);
+        }
+        case EncryptionMode.RandomDelta -> {
+          counter.randomDelta(i, in);
+          gamma(block);
         }
+      }
+    }
 
-        byte[] buffer = readBlock.get(i);
-        writeBlock.put(i, xor(buffer, function.apply(counter(count, modularMultiply(RD, i)))));
+    private void ECB(byte[] block) {
+      if (encryptOrDecrypt == ENCRYPT) {
+        symmetricEncryption.encryptBlock(block, 0, block, 0);
+      } else {
+        symmetricEncryption.decryptBlock(block, 0, block, 0);
+      }
+    }
 
-        if (progress != null) progress.increment();
-      });
-    } catch (Exception _) {
-      throw new RuntimeException("Stopped");
+    // feedback = c(i-1)
+    private void CBC(byte[] block) {
+      if (encryptOrDecrypt == ENCRYPT) {
+        xor(block, 0, feedback, 0, blockSize);
+        symmetricEncryption.encryptBlock(block, 0, block, 0);
+        System.arraycopy(block, 0, feedback, 0, blockSize);
+      } else {
+        System.arraycopy(block, 0, in, 0, blockSize);
+        symmetricEncryption.decryptBlock(block, 0, block, 0);
+        xor(block, 0, feedback, 0, blockSize);
+        System.arraycopy(in, 0, feedback, 0, blockSize);
+      }
     }
-  }
 
-  private byte[] counter(BigInteger num, BigInteger n) {
-    byte[] res = new byte[blockSize];
+    // feedback = c(i-1)
+    private void CFB(byte[] block) {
+      if (encryptOrDecrypt == DECRYPT) {
+        System.arraycopy(block, 0, in, 0, blockSize);
+      }
 
-    byte[] sum = num.add(n).toByteArray();
+      symmetricEncryption.encryptBlock(feedback, 0, feedback, 0);
+      xor(block, 0, feedback, 0, blockSize);
 
-    int index = blockSize - 1;
-    int sumIndex = sum.length - 1;
-    for (; sumIndex >= 0 && index >= 0; sumIndex--, index--) {
-      res[index] = sum[sumIndex];
+      System.arraycopy(encryptOrDecrypt == ENCRYPT ? block : in, 0, feedback, 0, blockSize);
     }
 
-    return res;
-  }
+    // feedback = E(i-1)
+    private void OFB(byte[] block) {
+      symmetricEncryption.encryptBlock(feedback, 0, feedback, 0);
+      xor(block, 0, feedback, 0, blockSize);
+    }
 
-  private BigInteger modularMultiply(BigInteger rd, int i) {
-    BigInteger b = BigInteger.valueOf(i);
+    // feedback = m(i-1) ^ c(i-1)
+    private void PCBC(byte[] block) {
+      System.arraycopy(block, 0, in, 0, blockSize);
 
-    return rd.multiply(b).mod(rdMax);
+      if (encryptOrDecrypt == ENCRYPT) {
+        xor(block, 0, feedback, 0, blockSize);
+        symmetricEncryption.encryptBlock(block, 0, block, 0);
+      } else {
+        symmetricEncryption.decryptBlock(block, 0, block, 0);
+        xor(block, 0, feedback, 0, blockSize);
+      }
+      xor(in, 0, block, 0, feedback, 0, blockSize);
+    }
+
+    // in = блок счётчика
+    private void gamma(byte[] block) {
+      symmetricEncryption.encryptBlock(in, 0, in, 0);
+      xor(block, 0, in, 0, blockSize);
+    }
   }
 }
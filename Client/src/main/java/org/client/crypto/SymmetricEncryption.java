@@ -1,9 +1,41 @@
 package org.client.crypto;
 
+import java.util.Arrays;
+
 public interface SymmetricEncryption {
   public byte[] encryption(byte[] text);
 
   public byte[] decryption(byte[] text);
 
   public int getBlockSize();
+
+  /// Шифрует блок in[inOff, inOff + blockSize) в out[outOff, outOff + blockSize).
+  /// Массивы могут совпадать, в том числе с одинаковым смещением. Реализации шифров
+  /// переопределяют метод, чтобы не создавать промежуточных массивов на каждый блок.
+  public default void encryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    int blockSize = getBlockSize();
+    System.arraycopy(encryption(Arrays.copyOfRange(in, inOff, inOff + blockSize)), 0, out, outOff, blockSize);
+  }
+
+  public default void decryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    int blockSize = getBlockSize();
+    System.arraycopy(decryption(Arrays.copyOfRange(in, inOff, inOff + blockSize)), 0, out, outOff, blockSize);
+  }
+
+  /// Шифрует count независимых блоков подряд из in[inOff, ...) в out[outOff, ...). Массивы могут
+  /// совпадать с одинаковым смещением. Реализации, которым выгодно обрабатывать много блоков сразу,
+  /// переопределяют метод; по умолчанию блоки шифруются по одному через encryptBlock
+  public default void encryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    int blockSize = getBlockSize();
+    for (int k = 0; k < count; k++) {
+      encryptBlock(in, inOff + k * blockSize, out, outOff + k * blockSize);
+    }
+  }
+
+  public default void decryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    int blockSize = getBlockSize();
+    for (int k = 0; k < count; k++) {
+      decryptBlock(in, inOff + k * blockSize, out, outOff + k * blockSize);
+    }
+  }
 }
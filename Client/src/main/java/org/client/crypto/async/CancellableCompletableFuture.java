@@ -44,14 +44,25 @@ public class CancellableCompletableFuture<T> extends CompletableFuture<T> {
   }
 
   public double getProgress() {
-    if (progress.getTotal() == 0) {
+    long processed = progress.getProcessed();
+    long total = progress.getTotal();
+
+    if (total == 0) {
       return 0;
     }
 
-    if (progress.getProcessed() > progress.getTotal()) {
-      log.error("More than possible processed: {} / {}", progress.getProcessed(), progress.getTotal());
+    if (processed > total) {
+      log.error("More than possible processed: {} / {}", processed, total);
     }
 
-    return (double) progress.getProcessed() / progress.getTotal() * 100;
+    return (double) processed / total * 100;
+  }
+
+  public long getProcessedBytes() {
+    return progress.getProcessedBytes();
+  }
+
+  public long getTotalBytes() {
+    return progress.getTotalBytes();
   }
 }
@@ -1,31 +1,49 @@
 package org.client.crypto.async;
 
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.atomic.LongAdder;
 
-import java.util.concurrent.atomic.AtomicLong;
-
-@RequiredArgsConstructor
+/// Счётчик обработанных блоков. Параллельные потоки добавляют в него целые участки, а LongAdder
+/// раскладывает их по отдельным ячейкам, поэтому одна строка кэша не становится общей для всех ядер.
+/// Чтение суммирует ячейки и нужно только индикатору прогресса
 public class EncryptionProgress {
-  private final AtomicLong processed;
-  private final AtomicLong total;
+  private final LongAdder processed = new LongAdder();
+  private volatile long total;
+  private volatile int blockSize = 1;
 
   public void increment() {
-    processed.incrementAndGet();
+    processed.increment();
+  }
+
+  public void add(long count) {
+    processed.add(count);
   }
 
   public long getProcessed() {
-    return processed.get();
+    return processed.sum();
   }
 
   public long getTotal() {
-    return total.get();
+    return total;
+  }
+
+  public long getProcessedBytes() {
+    return getProcessed() * blockSize;
+  }
+
+  public long getTotalBytes() {
+    return total * blockSize;
   }
 
   public void setProcessed(long count) {
-    processed.set(count);
+    processed.reset();
+    processed.add(count);
   }
 
   public void setTotal(long count) {
-    total.set(count);
+    total = count;
+  }
+
+  public void setBlockSize(int blockSize) {
+    this.blockSize = blockSize;
   }
 }
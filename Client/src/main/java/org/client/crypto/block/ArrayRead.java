@@ -24,22 +24,39 @@ public class ArrayRead implements ReadBlock {
   }
 
   @Override
-  public byte[] get(int index) {
-    byte[] block;
-    index *= blockSize;
+  public byte[] get(long index) {
+    byte[] block = new byte[blockSize];
+    get(index, block);
 
-    if (packingFunction != null && index + blockSize > inputSize) {
-      int size = (int) (inputSize - index);
+    return block;
+  }
+
+  @Override
+  public void get(long index, byte[] block) {
+    int offset = (int) (index * blockSize);
 
-      block = new byte[size];
-      System.arraycopy(input, index, block, 0, size);
+    if (packingFunction != null && offset + blockSize > inputSize) {
+      byte[] buf = new byte[(int) (inputSize - offset)];
+      System.arraycopy(input, offset, buf, 0, buf.length);
 
-      return packingFunction.apply(block);
+      System.arraycopy(packingFunction.apply(buf), 0, block, 0, blockSize);
     } else {
-      block = new byte[blockSize];
-      System.arraycopy(input, index, block, 0, blockSize);
+      System.arraycopy(input, offset, block, 0, blockSize);
+    }
+  }
+
+  @Override
+  public void get(long index, int count, byte[] blocks) {
+    int offset = (int) (index * blockSize);
+
+    // Набивку получает только последний, неполный блок
+    int whole = packingFunction != null && offset + blocks.length > inputSize ? count - 1 : count;
+    System.arraycopy(input, offset, blocks, 0, whole * blockSize);
 
-      return block;
+    if (whole < count) {
+      byte[] block = new byte[blockSize];
+      get(index + whole, block);
+      System.arraycopy(block, 0, blocks, whole * blockSize, blockSize);
     }
   }
 }
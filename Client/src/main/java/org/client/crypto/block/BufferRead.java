@@ -0,0 +1,63 @@
+package org.client.crypto.block;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/// Чтение блоков из ByteBuffer, в том числе прямого: используются только абсолютные операции,
+/// поэтому position буфера не меняется и участки можно читать из нескольких потоков
+public class BufferRead implements ReadBlock {
+  private final ByteBuffer input;
+  private final int blockSize;
+  private final int inputSize;
+  private Function<byte[], byte[]> packingFunction = null;
+
+  public BufferRead(ByteBuffer input, int blockSize, Function<byte[], byte[]> packing) {
+    this(input, blockSize);
+    this.packingFunction = packing;
+  }
+
+  /// input читается от 0 до limit
+  public BufferRead(ByteBuffer input, int blockSize) {
+    this.input = input;
+    this.blockSize = blockSize;
+
+    inputSize = input.limit();
+  }
+
+  @Override
+  public byte[] get(long index) {
+    byte[] block = new byte[blockSize];
+    get(index, block);
+
+    return block;
+  }
+
+  @Override
+  public void get(long index, byte[] block) {
+    get(index, 1, block);
+  }
+
+  @Override
+  public void get(long index, int count, byte[] blocks) {
+    int offset = (int) (index * blockSize);
+
+    int available = Math.max(0, Math.min(blocks.length, inputSize - offset));
+    input.get(offset, blocks, 0, available);
+    Arrays.fill(blocks, available, blocks.length, (byte) 0);
+
+    // Набивку получает только последний, неполный блок
+    int last = (count - 1) * blockSize;
+    if (packingFunction != null && offset + blocks.length > inputSize) {
+      byte[] buf = Arrays.copyOfRange(blocks, last, inputSize - offset);
+      System.arraycopy(packingFunction.apply(buf), 0, blocks, last, blockSize);
+    }
+  }
+
+  @Override
+  public boolean overlaps(WriteBlock writeBlock) {
+    return writeBlock instanceof BufferWrite bufferWrite &&
+            MemorySegment.ofBuffer(input).asOverlappingSlice(MemorySegment.ofBuffer(bufferWrite.getOutput())).isPresent();
+  }
+}
@@ -0,0 +1,28 @@
+package org.client.crypto.block;
+
+import java.nio.ByteBuffer;
+
+/// Запись блоков в ByteBuffer абсолютными операциями, начиная с индекса 0
+public class BufferWrite implements WriteBlock {
+  private final ByteBuffer output;
+  private final int blockSize;
+
+  public BufferWrite(ByteBuffer output, int blockSize) {
+    this.output = output;
+    this.blockSize = blockSize;
+  }
+
+  ByteBuffer getOutput() {
+    return output;
+  }
+
+  @Override
+  public void put(long index, byte[] block) {
+    output.put((int) (index * blockSize), block, 0, blockSize);
+  }
+
+  @Override
+  public void put(long index, int count, byte[] blocks) {
+    output.put((int) (index * blockSize), blocks, 0, count * blockSize);
+  }
+}
@@ -1,53 +1,145 @@
 package org.client.crypto.block;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public class FileRead implements ReadBlock {
-  private final String fileName;
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  private final FileChannel input;
   private final int blockSize;
+  private final int chunkSize;
   private final long fileSize;
   private Function<byte[], byte[]> packingFunction = null;
 
-  public FileRead(String fileName, int blockSize, Function<byte[], byte[]> packing) {
-    this.fileName = fileName;
-    this.blockSize = blockSize;
+  // Каждый поток читает свой непрерывный участок файла в собственный буфер
+  private final Map<Thread, Window> windows = new ConcurrentHashMap<>();
 
-    fileSize = new File(fileName).length();
+  public FileRead(String fileName, int blockSize, Function<byte[], byte[]> packing) {
+    this(fileName, blockSize);
     this.packingFunction = packing;
   }
 
   public FileRead(String fileName, int blockSize) {
-    this.fileName = fileName;
     this.blockSize = blockSize;
+    chunkSize = CHUNK_SIZE / blockSize * blockSize;
 
-    fileSize = new File(fileName).length();
+    try {
+      input = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+      fileSize = input.size();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   @Override
-  public byte[] get(int index) {
+  public byte[] get(long index) {
     byte[] block = new byte[blockSize];
-    index *= blockSize;
+    get(index, block);
+
+    return block;
+  }
+
+  @Override
+  public void get(long index, byte[] block) {
+    long offset = index * blockSize;
+
+    Window window = windows.computeIfAbsent(Thread.currentThread(), _ -> new Window(chunkSize));
+    if (offset < window.start || offset >= window.start + window.length) {
+      fill(window, offset - offset % chunkSize);
+    }
+
+    int available = (int) Math.max(0, Math.min(blockSize, window.start + window.length - offset));
+    if (available > 0) {
+      System.arraycopy(window.buffer, (int) (offset - window.start), block, 0, available);
+    }
+    Arrays.fill(block, available, blockSize, (byte) 0);
+
+    if (packingFunction != null && offset + blockSize > fileSize) {
+      byte[] buf = new byte[(int) (fileSize - offset)];
+      System.arraycopy(block, 0, buf, 0, buf.length);
+      System.arraycopy(packingFunction.apply(buf), 0, block, 0, blockSize);
+    }
+  }
+
+  @Override
+  public void get(long index, int count, byte[] blocks) {
+    long offset = index * blockSize;
+
+    Window window = windows.computeIfAbsent(Thread.currentThread(), _ -> new Window(chunkSize));
+    int copied = 0;
 
-    try (FileChannel input = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
-      input.position(index);
+    while (copied < blocks.length) {
+      long position = offset + copied;
 
-      if (packingFunction != null && index + blockSize > fileSize) {
-        byte[] buf = new byte[(int) (fileSize - index)];
-        input.read(ByteBuffer.wrap(buf));
-        System.arraycopy(packingFunction.apply(buf), 0, block, 0, blockSize);
-      } else {
-        input.read(ByteBuffer.wrap(block));
+      if (position < window.start || position >= window.start + window.length) {
+        if (position >= fileSize) {
+          break;
+        }
+
+        fill(window, position - position % chunkSize);
       }
+
+      int length = (int) Math.min(blocks.length - copied, window.start + window.length - position);
+      System.arraycopy(window.buffer, (int) (position - window.start), blocks, copied, length);
+      copied += length;
+    }
+    Arrays.fill(blocks, copied, blocks.length, (byte) 0);
+
+    long lastOffset = offset + (long) (count - 1) * blockSize;
+    if (packingFunction != null && lastOffset + blockSize > fileSize) {
+      int last = (count - 1) * blockSize;
+      byte[] buf = Arrays.copyOfRange(blocks, last, last + (int) (fileSize - lastOffset));
+      System.arraycopy(packingFunction.apply(buf), 0, blocks, last, blockSize);
+    }
+  }
+
+  @Override
+  public void close() {
+    windows.clear();
+
+    try {
+      input.close();
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+  }
 
-    return block;
+  private void fill(Window window, long start) {
+    ByteBuffer buffer = ByteBuffer.wrap(window.buffer);
+    long position = start;
+
+    try {
+      while (buffer.hasRemaining() && position < fileSize) {
+        int read = input.read(buffer, position);
+        if (read < 0) {
+          break;
+        }
+
+        position += read;
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    window.start = start;
+    window.length = buffer.position();
+  }
+
+  private static class Window {
+    private final byte[] buffer;
+    private long start = 0;
+    private int length = 0;
+
+    private Window(int size) {
+      buffer = new byte[size];
+    }
   }
 }
@@ -5,44 +5,123 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public class FileWrite implements WriteBlock {
-  private final String fileName;
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  private final FileChannel output;
   private final int blockSize;
+  private final int chunkSize;
   private Function<byte[], byte[]> unpackingFunction = null;
   private long fileSize = 0;
 
+  // Блоки копятся в буфере потока, пока они идут подряд, и сбрасываются одной записью
+  private final Map<Thread, Window> windows = new ConcurrentHashMap<>();
+
   public FileWrite(String fileName, int blockSize) {
-    this.fileName = fileName;
     this.blockSize = blockSize;
+    chunkSize = CHUNK_SIZE / blockSize * blockSize;
+
+    try {
+      output = FileChannel.open(
+              Paths.get(fileName),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   public FileWrite(String fileName, int blockSize, long fileSize, Function<byte[], byte[]> unpackingFunction) {
-    this.fileName = fileName;
-    this.blockSize = blockSize;
+    this(fileName, blockSize);
     this.unpackingFunction = unpackingFunction;
     this.fileSize = fileSize;
   }
 
   @Override
-  public void put(int index, byte[] block) {
-    index *= blockSize;
+  public void put(long index, byte[] block) {
+    long offset = index * blockSize;
+
+    if (unpackingFunction != null && offset + blockSize >= fileSize) {
+      block = unpackingFunction.apply(block);
+    }
+
+    append(offset, block, 0, block.length);
+  }
+
+  @Override
+  public void put(long index, int count, byte[] blocks) {
+    long offset = index * blockSize;
 
-    try (FileChannel output = FileChannel.open(
-            Paths.get(fileName),
-            StandardOpenOption.CREATE,
-            StandardOpenOption.WRITE)) {
+    // Набивку снимают только с последнего блока
+    int whole = unpackingFunction != null && offset + blocks.length >= fileSize ? count - 1 : count;
+    append(offset, blocks, 0, whole * blockSize);
 
-      output.position(index);
+    if (whole < count) {
+      put(index + whole, Arrays.copyOfRange(blocks, whole * blockSize, blocks.length));
+    }
+  }
+
+  private void append(long offset, byte[] bytes, int from, int length) {
+    Window window = windows.computeIfAbsent(Thread.currentThread(), _ -> new Window(chunkSize));
 
-      if (unpackingFunction != null && index + blockSize >= fileSize) {
-        output.write(ByteBuffer.wrap(unpackingFunction.apply(block)));
-      } else {
-        output.write(ByteBuffer.wrap(block));
+    while (length > 0) {
+      if (offset != window.start + window.length || window.length == chunkSize) {
+        flush(window);
+        window.start = offset;
+      }
+
+      int n = Math.min(length, chunkSize - window.length);
+      System.arraycopy(bytes, from, window.buffer, window.length, n);
+      window.length += n;
+
+      offset += n;
+      from += n;
+      length -= n;
+    }
+  }
+
+  @Override
+  public void close() {
+    try (output) {
+      for (Window window : windows.values()) {
+        flush(window);
       }
     } catch (IOException e) {
       throw new RuntimeException(e);
+    } finally {
+      windows.clear();
+    }
+  }
+
+  private void flush(Window window) {
+    ByteBuffer buffer = ByteBuffer.wrap(window.buffer, 0, window.length);
+    long position = window.start;
+
+    try {
+      while (buffer.hasRemaining()) {
+        position += output.write(buffer, position);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    window.start += window.length;
+    window.length = 0;
+  }
+
+  private static class Window {
+    private final byte[] buffer;
+    private long start = 0;
+    private int length = 0;
+
+    private Window(int size) {
+      buffer = new byte[size];
     }
   }
 }
@@ -0,0 +1,87 @@
+package org.client.crypto.block;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+public class MappedRead implements ReadBlock {
+  private final FileChannel input;
+  private final int blockSize;
+  private final long fileSize;
+  // Отображение живёт, пока открыт Arena: close снимает его сразу, не дожидаясь сборщика мусора
+  private final Arena arena = Arena.ofShared();
+  private final MemorySegment mapped;
+  private Function<byte[], byte[]> packingFunction = null;
+
+  public MappedRead(String fileName, int blockSize, Function<byte[], byte[]> packing) {
+    this(fileName, blockSize);
+    this.packingFunction = packing;
+  }
+
+  public MappedRead(String fileName, int blockSize) {
+    this.blockSize = blockSize;
+
+    try {
+      input = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+      fileSize = input.size();
+      mapped = input.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public byte[] get(long index) {
+    byte[] block = new byte[blockSize];
+    get(index, block);
+
+    return block;
+  }
+
+  @Override
+  public void get(long index, byte[] block) {
+    long offset = index * blockSize;
+
+    int available = (int) Math.max(0, Math.min(blockSize, fileSize - offset));
+    MemorySegment.copy(mapped, JAVA_BYTE, Math.min(offset, fileSize), block, 0, available);
+    Arrays.fill(block, available, blockSize, (byte) 0);
+
+    if (packingFunction != null && offset + blockSize > fileSize) {
+      byte[] buf = new byte[available];
+      System.arraycopy(block, 0, buf, 0, available);
+      System.arraycopy(packingFunction.apply(buf), 0, block, 0, blockSize);
+    }
+  }
+
+  @Override
+  public void get(long index, int count, byte[] blocks) {
+    long offset = index * blockSize;
+
+    int available = (int) Math.max(0, Math.min(blocks.length, fileSize - offset));
+    MemorySegment.copy(mapped, JAVA_BYTE, Math.min(offset, fileSize), blocks, 0, available);
+    Arrays.fill(blocks, available, blocks.length, (byte) 0);
+
+    long lastOffset = offset + (long) (count - 1) * blockSize;
+    if (packingFunction != null && lastOffset + blockSize > fileSize) {
+      int last = (count - 1) * blockSize;
+      byte[] buf = Arrays.copyOfRange(blocks, last, last + (int) (fileSize - lastOffset));
+      System.arraycopy(packingFunction.apply(buf), 0, blocks, last, blockSize);
+    }
+  }
+
+  @Override
+  public void close() {
+    try (input) {
+      arena.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
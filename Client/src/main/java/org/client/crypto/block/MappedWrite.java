@@ -0,0 +1,91 @@
+package org.client.crypto.block;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+public class MappedWrite implements WriteBlock {
+  private final FileChannel output;
+  private final int blockSize;
+  private final long fileSize;
+  // Файл с живым отображением нельзя обрезать (на Windows truncate завершается ошибкой),
+  // поэтому close сначала закрывает Arena и только потом укорачивает файл
+  private final Arena arena = Arena.ofShared();
+  private final MemorySegment mapped;
+  private Function<byte[], byte[]> unpackingFunction = null;
+
+  // После снятия набивки файл оказывается короче заранее выделенного размера
+  private volatile long resultSize;
+
+  public MappedWrite(String fileName, int blockSize, long fileSize) {
+    this.blockSize = blockSize;
+    this.fileSize = fileSize;
+    resultSize = fileSize;
+
+    try {
+      output = FileChannel.open(
+              Paths.get(fileName),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+
+      // Отображение в режиме READ_WRITE сразу увеличивает файл до нужного размера
+      mapped = output.map(FileChannel.MapMode.READ_WRITE, 0, fileSize, arena);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public MappedWrite(String fileName, int blockSize, long fileSize, Function<byte[], byte[]> unpackingFunction) {
+    this(fileName, blockSize, fileSize);
+    this.unpackingFunction = unpackingFunction;
+  }
+
+  @Override
+  public void put(long index, byte[] block) {
+    long offset = index * blockSize;
+
+    if (unpackingFunction != null && offset + blockSize >= fileSize) {
+      block = unpackingFunction.apply(block);
+      resultSize = offset + block.length;
+    }
+
+    MemorySegment.copy(block, 0, mapped, JAVA_BYTE, offset, block.length);
+  }
+
+  @Override
+  public void put(long index, int count, byte[] blocks) {
+    long offset = index * blockSize;
+
+    // Набивку снимают только с последнего блока
+    int whole = unpackingFunction != null && offset + blocks.length >= fileSize ? count - 1 : count;
+    int length = whole * blockSize;
+    MemorySegment.copy(blocks, 0, mapped, JAVA_BYTE, offset, length);
+
+    if (whole < count) {
+      put(index + whole, Arrays.copyOfRange(blocks, length, blocks.length));
+    }
+  }
+
+  @Override
+  public void close() {
+    try (output) {
+      mapped.force();
+      arena.close();
+
+      if (resultSize < fileSize) {
+        output.truncate(resultSize);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -1,5 +1,31 @@
 package org.client.crypto.block;
 
-public interface ReadBlock {
-  public byte[] get(int index);
+public interface ReadBlock extends AutoCloseable {
+  public byte[] get(long index);
+
+  /// Читает блок в переданный массив, чтобы режимы могли переиспользовать один буфер
+  public default void get(long index, byte[] block) {
+    System.arraycopy(get(index), 0, block, 0, block.length);
+  }
+
+  /// Читает count блоков подряд, начиная с index; blocks - ровно count блоков.
+  /// Параллельные режимы обрабатывают данные участками, а не по одному блоку
+  public default void get(long index, int count, byte[] blocks) {
+    int blockSize = blocks.length / count;
+    byte[] block = new byte[blockSize];
+
+    for (int k = 0; k < count; k++) {
+      get(index + k, block);
+      System.arraycopy(block, 0, blocks, k * blockSize, blockSize);
+    }
+  }
+
+  /// Пишет ли writeBlock в ту же память, из которой читает этот ReadBlock, - расшифрование на месте
+  public default boolean overlaps(WriteBlock writeBlock) {
+    return false;
+  }
+
+  @Override
+  default void close() {
+  }
 }
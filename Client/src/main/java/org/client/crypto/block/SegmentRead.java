@@ -0,0 +1,64 @@
+package org.client.crypto.block;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+/// Чтение блоков из MemorySegment: смещения long, поэтому сегмент может быть больше 2 ГБ.
+/// Сегмент только читается, и участки можно читать из нескольких потоков
+public class SegmentRead implements ReadBlock {
+  private final MemorySegment input;
+  private final int blockSize;
+  private final long inputSize;
+  private Function<byte[], byte[]> packingFunction = null;
+
+  public SegmentRead(MemorySegment input, int blockSize, Function<byte[], byte[]> packing) {
+    this(input, blockSize);
+    this.packingFunction = packing;
+  }
+
+  public SegmentRead(MemorySegment input, int blockSize) {
+    this.input = input;
+    this.blockSize = blockSize;
+
+    inputSize = input.byteSize();
+  }
+
+  @Override
+  public byte[] get(long index) {
+    byte[] block = new byte[blockSize];
+    get(index, block);
+
+    return block;
+  }
+
+  @Override
+  public void get(long index, byte[] block) {
+    get(index, 1, block);
+  }
+
+  @Override
+  public void get(long index, int count, byte[] blocks) {
+    long offset = index * blockSize;
+
+    int available = (int) Math.max(0, Math.min(blocks.length, inputSize - offset));
+    MemorySegment.copy(input, JAVA_BYTE, Math.min(offset, inputSize), blocks, 0, available);
+    Arrays.fill(blocks, available, blocks.length, (byte) 0);
+
+    // Набивку получает только последний, неполный блок
+    long lastOffset = offset + (long) (count - 1) * blockSize;
+    if (packingFunction != null && lastOffset + blockSize > inputSize) {
+      int last = (count - 1) * blockSize;
+      byte[] buf = Arrays.copyOfRange(blocks, last, last + (int) (inputSize - lastOffset));
+      System.arraycopy(packingFunction.apply(buf), 0, blocks, last, blockSize);
+    }
+  }
+
+  @Override
+  public boolean overlaps(WriteBlock writeBlock) {
+    return writeBlock instanceof SegmentWrite segmentWrite &&
+            input.asOverlappingSlice(segmentWrite.getOutput()).isPresent();
+  }
+}
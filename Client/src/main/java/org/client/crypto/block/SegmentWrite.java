@@ -0,0 +1,30 @@
+package org.client.crypto.block;
+
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+/// Запись блоков в MemorySegment, начиная с индекса 0; смещения long, как и в SegmentRead
+public class SegmentWrite implements WriteBlock {
+  private final MemorySegment output;
+  private final int blockSize;
+
+  public SegmentWrite(MemorySegment output, int blockSize) {
+    this.output = output;
+    this.blockSize = blockSize;
+  }
+
+  MemorySegment getOutput() {
+    return output;
+  }
+
+  @Override
+  public void put(long index, byte[] block) {
+    MemorySegment.copy(block, 0, output, JAVA_BYTE, index * blockSize, blockSize);
+  }
+
+  @Override
+  public void put(long index, int count, byte[] blocks) {
+    MemorySegment.copy(blocks, 0, output, JAVA_BYTE, index * blockSize, count * blockSize);
+  }
+}
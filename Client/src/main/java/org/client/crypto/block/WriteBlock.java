@@ -1,5 +1,20 @@
 package org.client.crypto.block;
 
-public interface WriteBlock {
-  public void put(int index, byte[] block);
+public interface WriteBlock extends AutoCloseable {
+  public void put(long index, byte[] block);
+
+  /// Записывает count блоков подряд, начиная с index; blocks - ровно count блоков
+  public default void put(long index, int count, byte[] blocks) {
+    int blockSize = blocks.length / count;
+    byte[] block = new byte[blockSize];
+
+    for (int k = 0; k < count; k++) {
+      System.arraycopy(blocks, k * blockSize, block, 0, blockSize);
+      put(index + k, block);
+    }
+  }
+
+  @Override
+  default void close() {
+  }
 }
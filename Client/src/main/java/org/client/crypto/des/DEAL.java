@@ -1,15 +1,28 @@
 package org.client.crypto.des;
 
 import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.impl.BitslicedDES;
 import org.client.crypto.des.impl.DEALFeistelFunction;
 import org.client.crypto.des.impl.DEALGenKey;
 
-import static org.client.crypto.enums.EncryptOrDecrypt.DECRYPT;
-import static org.client.crypto.enums.EncryptOrDecrypt.ENCRYPT;
+import java.util.Arrays;
+
+import static org.client.crypto.des.impl.BitslicedDES.LANES;
+import static org.client.crypto.des.impl.BitslicedDES.MIN_BLOCKS;
+import static org.client.crypto.des.impl.BitslicedDES.transpose;
+import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
 
 public class DEAL extends FeistelCipher implements SymmetricEncryption {
+  // Раундовая функция DEAL - DES на ключе раунда, поэтому расписания DES строятся один раз
+  private final long[][] schedules;
+  private final BitslicedDES[] bitsliced;
+
   public DEAL(byte[] inputKey) {
     super(new DEALGenKey(inputKey.length), new DEALFeistelFunction(), inputKey);
+
+    schedules = keys.stream().map(DES::schedule).toArray(long[][]::new);
+    bitsliced = Arrays.stream(schedules).map(BitslicedDES::new).toArray(BitslicedDES[]::new);
   }
 
   @Override
@@ -18,7 +31,10 @@ public class DEAL extends FeistelCipher implements SymmetricEncryption {
       throw new IllegalArgumentException("Text must be 16 bytes ");
     }
 
-    return inverseCipher(text, ENCRYPT);
+    byte[] res = new byte[16];
+    encryptBlock(text, 0, res, 0);
+
+    return res;
   }
 
   @Override
@@ -27,11 +43,116 @@ public class DEAL extends FeistelCipher implements SymmetricEncryption {
       throw new IllegalArgumentException("Text must be 16 bytes");
     }
 
-    return inverseCipher(text, DECRYPT);
+    byte[] res = new byte[16];
+    decryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  @Override
+  public void encryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    long L = byteArrayToLongBigEndian(in, inOff, 8);
+    long R = byteArrayToLongBigEndian(in, inOff + 8, 8);
+
+    for (long[] roundKeys : schedules) {
+      long tmp = L;
+      L = R ^ DES.encrypt(L, roundKeys);
+      R = tmp;
+    }
+
+    longToByteArrayBigEndian(L, out, outOff, 8);
+    longToByteArrayBigEndian(R, out, outOff + 8, 8);
+  }
+
+  @Override
+  public void decryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    long L = byteArrayToLongBigEndian(in, inOff, 8);
+    long R = byteArrayToLongBigEndian(in, inOff + 8, 8);
+
+    for (int i = schedules.length - 1; i >= 0; i--) {
+      long tmp = R;
+      R = L ^ DES.encrypt(R, schedules[i]);
+      L = tmp;
+    }
+
+    longToByteArrayBigEndian(L, out, outOff, 8);
+    longToByteArrayBigEndian(R, out, outOff + 8, 8);
+  }
+
+  /// Половины блоков пачки транспонируются один раз и проходят все раунды в разрезанном виде
+  @Override
+  public void encryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, false);
+  }
+
+  @Override
+  public void decryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, true);
   }
 
   @Override
   public int getBlockSize() {
     return 16;
   }
+
+  private void blocks(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    long[] L = new long[LANES];
+    long[] R = new long[LANES];
+    long[] F = new long[LANES];
+
+    while (count >= MIN_BLOCKS) {
+      int n = Math.min(count, LANES);
+
+      for (int k = 0; k < n; k++) {
+        L[k] = byteArrayToLongBigEndian(in, inOff + 16 * k, 8);
+        R[k] = byteArrayToLongBigEndian(in, inOff + 16 * k + 8, 8);
+      }
+      Arrays.fill(L, n, LANES, 0);
+      Arrays.fill(R, n, LANES, 0);
+
+      transpose(L);
+      transpose(R);
+
+      // Раунд A, B -> B ^ DES(A), A. При расшифровании половины меняются ролями, а ключи идут с конца
+      long[] A = decrypt ? R : L;
+      long[] B = decrypt ? L : R;
+
+      for (int i = 0; i < bitsliced.length; i++) {
+        System.arraycopy(A, 0, F, 0, LANES);
+        bitsliced[decrypt ? bitsliced.length - 1 - i : i].encryptSlices(F);
+
+        for (int k = 0; k < LANES; k++) {
+          F[k] ^= B[k];
+        }
+
+        long[] tmp = B;
+        B = A;
+        A = F;
+        F = tmp;
+      }
+
+      L = decrypt ? B : A;
+      R = decrypt ? A : B;
+
+      transpose(L);
+      transpose(R);
+
+      for (int k = 0; k < n; k++) {
+        longToByteArrayBigEndian(L[k], out, outOff + 16 * k, 8);
+        longToByteArrayBigEndian(R[k], out, outOff + 16 * k + 8, 8);
+      }
+
+      inOff += 16 * n;
+      outOff += 16 * n;
+      count -= n;
+    }
+
+    for (int k = 0; k < count; k++) {
+      if (decrypt) {
+        decryptBlock(in, inOff + 16 * k, out, outOff + 16 * k);
+      } else {
+        encryptBlock(in, inOff + 16 * k, out, outOff + 16 * k);
+      }
+    }
+  }
 }
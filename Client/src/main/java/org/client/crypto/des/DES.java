@@ -1,17 +1,50 @@
 package org.client.crypto.des;
 
 import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.impl.BitslicedDES;
 import org.client.crypto.des.impl.DESFeistelFunction;
 import org.client.crypto.des.impl.DESGenKey;
+import org.client.crypto.permutations.CompiledPermutation;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.client.crypto.des.impl.BitslicedDES.LANES;
+import static org.client.crypto.des.impl.BitslicedDES.MIN_BLOCKS;
 import static org.client.crypto.enums.IndexingRule.HIGHEST1;
-import static org.client.crypto.permutations.Permutations.rearrange;
+import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
 import static org.client.crypto.permutations.matrices.MDES.*;
-import static org.client.crypto.enums.EncryptOrDecrypt.*;
 
 public class DES extends FeistelCipher implements SymmetricEncryption {
+  private static final CompiledPermutation IP_PERMUTATION = new CompiledPermutation(IP, 8, HIGHEST1);
+  private static final CompiledPermutation REVERSE_IP_PERMUTATION = new CompiledPermutation(reverseIP, 8, HIGHEST1);
+
+  private static final DESFeistelFunction f = new DESFeistelFunction();
+
+  private final long[] roundKeys;
+  private final BitslicedDES bitsliced;
+
   public DES(byte[] inputKey) {
     super(new DESGenKey(), new DESFeistelFunction(), inputKey);
+
+    roundKeys = schedule(keys);
+    bitsliced = new BitslicedDES(roundKeys);
+  }
+
+  /// Расписание ключей DES в компактном виде: 16 48-битных ключей раундов.
+  /// Массив не меняется после построения, поэтому его можно разделять между потоками.
+  public static long[] schedule(byte[] inputKey) {
+    return schedule(new DESGenKey().genKey(inputKey));
+  }
+
+  private static long[] schedule(List<byte[]> keys) {
+    long[] res = new long[keys.size()];
+    for (int i = 0; i < res.length; i++) {
+      res[i] = byteArrayToLongBigEndian(keys.get(i), 0, 6);
+    }
+
+    return res;
   }
 
   @Override
@@ -20,9 +53,10 @@ public class DES extends FeistelCipher implements SymmetricEncryption {
       throw new IllegalArgumentException("Text must be 8 bytes");
     }
 
-    return rearrange(
-            cipher(rearrange(text, IP, HIGHEST1), ENCRYPT),
-            reverseIP, HIGHEST1);
+    byte[] res = new byte[8];
+    encryptBlock(text, 0, res, 0);
+
+    return res;
   }
 
   @Override
@@ -31,13 +65,101 @@ public class DES extends FeistelCipher implements SymmetricEncryption {
       throw new IllegalArgumentException("Text must be 8 bytes");
     }
 
-    return rearrange(
-            cipher(rearrange(text, IP, HIGHEST1), DECRYPT),
-            reverseIP, HIGHEST1);
+    byte[] res = new byte[8];
+    decryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  @Override
+  public void encryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    longToByteArrayBigEndian(encrypt(byteArrayToLongBigEndian(in, inOff, 8)), out, outOff, 8);
+  }
+
+  @Override
+  public void decryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    longToByteArrayBigEndian(decrypt(byteArrayToLongBigEndian(in, inOff, 8)), out, outOff, 8);
+  }
+
+  /// Блоки идут пачками по LANES через BitslicedDES, остаток меньше MIN_BLOCKS - по одному
+  @Override
+  public void encryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, false);
+  }
+
+  @Override
+  public void decryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, true);
+  }
+
+  public long encrypt(long block) {
+    return encrypt(block, roundKeys);
+  }
+
+  public long decrypt(long block) {
+    return decrypt(block, roundKeys);
+  }
+
+  public static long encrypt(long block, long[] roundKeys) {
+    return cipher(block, roundKeys, false);
+  }
+
+  public static long decrypt(long block, long[] roundKeys) {
+    return cipher(block, roundKeys, true);
   }
 
   @Override
   public int getBlockSize() {
     return 8;
   }
-}
\ No newline at end of file
+
+  private void blocks(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    long[] lanes = new long[LANES];
+
+    while (count >= MIN_BLOCKS) {
+      int n = Math.min(count, LANES);
+
+      for (int k = 0; k < n; k++) {
+        lanes[k] = byteArrayToLongBigEndian(in, inOff + 8 * k, 8);
+      }
+      Arrays.fill(lanes, n, LANES, 0);
+
+      if (decrypt) {
+        bitsliced.decrypt(lanes);
+      } else {
+        bitsliced.encrypt(lanes);
+      }
+
+      for (int k = 0; k < n; k++) {
+        longToByteArrayBigEndian(lanes[k], out, outOff + 8 * k, 8);
+      }
+
+      inOff += 8 * n;
+      outOff += 8 * n;
+      count -= n;
+    }
+
+    for (int k = 0; k < count; k++) {
+      if (decrypt) {
+        decryptBlock(in, inOff + 8 * k, out, outOff + 8 * k);
+      } else {
+        encryptBlock(in, inOff + 8 * k, out, outOff + 8 * k);
+      }
+    }
+  }
+
+  private static long cipher(long block, long[] roundKeys, boolean reverseKeys) {
+    long text = IP_PERMUTATION.apply(block);
+
+    int L = (int) (text >>> 32);
+    int R = (int) text;
+
+    for (int i = 0; i < roundKeys.length; i++) {
+      int tmp = R;
+      R = L ^ f.encrypt(R, roundKeys[reverseKeys ? roundKeys.length - 1 - i : i]);
+      L = tmp;
+    }
+
+    return REVERSE_IP_PERMUTATION.apply(((long) R << 32) | Integer.toUnsignedLong(L));
+  }
+}
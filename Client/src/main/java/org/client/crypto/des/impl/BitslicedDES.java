@@ -0,0 +1,149 @@
+package org.client.crypto.des.impl;
+
+import static org.client.crypto.des.impl.BitslicedSBoxes.*;
+import static org.client.crypto.permutations.Permutations.toArray;
+import static org.client.crypto.permutations.matrices.MDES.IP;
+import static org.client.crypto.permutations.matrices.MDES.reverseIP;
+import static org.client.crypto.permutations.matrices.MEncryption.*;
+
+/// DES над LANES блоками сразу: после транспонирования slices[i] хранит i-й (со старшего) бит
+/// всех блоков, по одному в каждом бите long. Перестановки IP, E, P и обратная IP становятся
+/// выбором индекса, XOR с ключом раунда - XOR с маской 0 или -1, а S-блоки - логическими функциями
+/// BitslicedSBoxes без обращений к таблицам по данным, поэтому время не зависит от блоков и ключа.
+/// Результат совпадает с DES.encrypt(long, roundKeys) для каждого блока.
+public class BitslicedDES {
+  public static final int LANES = 64;
+  // Пачка стоит как LANES блоков независимо от заполнения: меньше MIN_BLOCKS блоков быстрее обычный DES
+  public static final int MIN_BLOCKS = LANES / 2;
+
+  private static final int[] IP_INDEX = zeroBased(toArray(IP));
+  private static final int[] REVERSE_IP_INDEX = zeroBased(toArray(reverseIP));
+  private static final int[] E_INDEX = zeroBased(toArray(E));
+  private static final int[] P_INVERSE = inverse(zeroBased(toArray(P)));
+
+  private final int rounds;
+  // keyMasks[48 * i + k] = -(k-й бит ключа i-го раунда)
+  private final long[] keyMasks;
+
+  public BitslicedDES(long[] roundKeys) {
+    rounds = roundKeys.length;
+    keyMasks = new long[48 * rounds];
+
+    for (int i = 0; i < rounds; i++) {
+      for (int k = 0; k < 48; k++) {
+        keyMasks[48 * i + k] = -((roundKeys[i] >>> (47 - k)) & 1);
+      }
+    }
+  }
+
+  /// Шифрует blocks[0, LANES) на месте
+  public void encrypt(long[] blocks) {
+    transpose(blocks);
+    cipher(blocks, false);
+    transpose(blocks);
+  }
+
+  public void decrypt(long[] blocks) {
+    transpose(blocks);
+    cipher(blocks, true);
+    transpose(blocks);
+  }
+
+  /// Шифрует на месте уже транспонированные блоки: так DEAL держит половины блоков
+  /// в разрезанном виде все раунды и транспонирует их только на входе и выходе
+  public void encryptSlices(long[] slices) {
+    cipher(slices, false);
+  }
+
+  /// Транспонирование битовой матрицы 64 x 64: i-й со старшего бит a[j] меняется местами
+  /// с j-м со старшего битом a[i]. Обратное преобразование - оно же
+  public static void transpose(long[] a) {
+    long m = 0x00000000FFFFFFFFL;
+
+    for (int j = 32; j != 0; j >>>= 1, m ^= m << j) {
+      for (int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+        long t = (a[k] ^ (a[k | j] >>> j)) & m;
+        a[k] ^= t;
+        a[k | j] ^= t << j;
+      }
+    }
+  }
+
+  private void cipher(long[] slices, boolean reverseKeys) {
+    long[] L = new long[32];
+    long[] R = new long[32];
+
+    for (int k = 0; k < 32; k++) {
+      L[k] = slices[IP_INDEX[k]];
+      R[k] = slices[IP_INDEX[32 + k]];
+    }
+
+    long[] S = new long[4];
+
+    for (int i = 0; i < rounds; i++) {
+      feistel(R, L, reverseKeys ? rounds - 1 - i : i, S);
+
+      long[] tmp = L;
+      L = R;
+      R = tmp;
+    }
+
+    // После последнего раунда половины идут в порядке R, L
+    for (int k = 0; k < 64; k++) {
+      int index = REVERSE_IP_INDEX[k];
+      slices[k] = index < 32 ? R[index] : L[index - 32];
+    }
+  }
+
+  /// L ^= P(S(E(R) ^ K))
+  private void feistel(long[] R, long[] L, int round, long[] S) {
+    int key = 48 * round;
+
+    for (int j = 0; j < 8; j++) {
+      int b = 6 * j;
+
+      long a0 = R[E_INDEX[b]] ^ keyMasks[key + b];
+      long a1 = R[E_INDEX[b + 1]] ^ keyMasks[key + b + 1];
+      long a2 = R[E_INDEX[b + 2]] ^ keyMasks[key + b + 2];
+      long a3 = R[E_INDEX[b + 3]] ^ keyMasks[key + b + 3];
+      long a4 = R[E_INDEX[b + 4]] ^ keyMasks[key + b + 4];
+      long a5 = R[E_INDEX[b + 5]] ^ keyMasks[key + b + 5];
+
+      switch (j) {
+        case 0 -> s1(a0, a1, a2, a3, a4, a5, S);
+        case 1 -> s2(a0, a1, a2, a3, a4, a5, S);
+        case 2 -> s3(a0, a1, a2, a3, a4, a5, S);
+        case 3 -> s4(a0, a1, a2, a3, a4, a5, S);
+        case 4 -> s5(a0, a1, a2, a3, a4, a5, S);
+        case 5 -> s6(a0, a1, a2, a3, a4, a5, S);
+        case 6 -> s7(a0, a1, a2, a3, a4, a5, S);
+        default -> s8(a0, a1, a2, a3, a4, a5, S);
+      }
+
+      int s = 4 * j;
+      L[P_INVERSE[s]] ^= S[0];
+      L[P_INVERSE[s + 1]] ^= S[1];
+      L[P_INVERSE[s + 2]] ^= S[2];
+      L[P_INVERSE[s + 3]] ^= S[3];
+    }
+  }
+
+  private static int[] zeroBased(int[] P) {
+    int[] res = new int[P.length];
+    for (int i = 0; i < P.length; i++) {
+      res[i] = P[i] - 1;
+    }
+
+    return res;
+  }
+
+  /// P[k] - откуда берётся k-й бит, res[i] - куда попадает i-й
+  private static int[] inverse(int[] P) {
+    int[] res = new int[P.length];
+    for (int k = 0; k < P.length; k++) {
+      res[P[k]] = k;
+    }
+
+    return res;
+  }
+}
@@ -0,0 +1,195 @@
+package org.client.crypto.des.impl;
+
+/// S-блоки DES как логические функции над разрезанными битами для BitslicedDES.
+/// Вход a0..a5 - биты входа S-блока со старшего, out[0..3] - биты выхода со старшего.
+/// Каждое выражение выписано по таблице MEncryption.S: r - строка (a0, a5), c - пара (a1, a2),
+/// а множитель при c - OR тех минтермов (a3, a4), на которых выходной бит равен 1:
+/// g1 = (0, 0), g2 = (0, 1), g4 = (1, 0), g8 = (1, 1), g6 = g2 | g4, a3 = g4 | g8, ~a3 = g1 | g2 и т.д.
+final class BitslicedSBoxes {
+  private BitslicedSBoxes() {
+  }
+
+  static void s1(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & ~a4 | c1 & ~g1 | c2 & a4 | c3 & g2)
+           | r1 & (c0 & g2 | c1 & ~a4 | c2 & ~g2 | c3 & ~g6)
+           | r2 & (c0 & a3 | c1 & ~g6 | c2 & ~g8 | c3 & g2)
+           | r3 & (c0 & ~g8 | c1 & g2 | c2 & a4 | c3 & ~g6);
+    out[1] = r0 & (c0 & ~g8 | c1 & g2 | c2 & a3 | c3 & ~g6)
+           | r1 & (c0 & ~g1 | c1 & ~a4 | c2 & g6 | c3 & g2)
+           | r2 & (c0 & ~a4 | c1 & ~a3 | c2 & ~g4 | c3 & g4)
+           | r3 & (c0 & ~a3 | c1 & ~g6 | c2 & ~g6 | c3 & a3);
+    out[2] = r0 & (c0 & g1 | c1 & ~g8 | c2 & ~g8 | c3 & g8)
+           | r1 & (c0 & g6 | c1 & ~a3 | c2 & ~g4 | c3 & g4)
+           | r2 & (c0 & g4 | c1 & ~g1 | c2 & ~g6 | c3 & ~a3)
+           | r3 & (c0 & ~g6 | c1 & g8 | c2 & ~g1 | c3 & ~a4);
+    out[3] = r0 & (c0 & a3 | c1 & g6 | c2 & g1 | c3 & ~g4)
+           | r1 & (c0 & g6 | c1 & a3 | c2 & g8 | c3 & ~g8)
+           | r2 & (c0 & g2 | c1 & ~g6 | c2 & ~g2 | c3 & ~a4)
+           | r3 & (c0 & g1 | c1 & ~g1 | c2 & ~g8 | c3 & g8);
+  }
+
+  static void s2(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & ~g2 | c1 & g2 | c2 & ~g6 | c3 & ~g6)
+           | r1 & (c0 & g2 | c1 & ~g2 | c2 & ~g6 | c3 & g6)
+           | r2 & (c0 & a4 | c1 & ~a4 | c2 & g6 | c3 & ~g6)
+           | r3 & (c0 & ~g8 | c1 & g2 | c2 & ~g6 | c3 & a3);
+    out[1] = r0 & (c0 & ~g6 | c1 & ~g6 | c2 & a4 | c3 & ~a4)
+           | r1 & (c0 & ~g1 | c1 & ~g6 | c2 & g1 | c3 & ~g6)
+           | r2 & (c0 & g6 | c1 & g6 | c2 & ~g2 | c3 & g8)
+           | r3 & (c0 & g1 | c1 & g6 | c2 & ~g1 | c3 & g6);
+    out[2] = r0 & (c0 & ~g6 | c1 & ~g8 | c2 & g6 | c3 & g8)
+           | r1 & (c0 & ~g6 | c1 & ~g4 | c2 & g8 | c3 & ~a4)
+           | r2 & (c0 & ~g1 | c1 & g1 | c2 & g8 | c3 & ~g1)
+           | r3 & (c0 & g4 | c1 & ~g4 | c2 & ~g8 | c3 & g4);
+    out[3] = r0 & (c0 & ~a3 | c1 & g6 | c2 & ~g4 | c3 & g4)
+           | r1 & (c0 & ~g4 | c1 & g1 | c2 & g4 | c3 & ~g1)
+           | r2 & (c0 & a3 | c1 & a3 | c2 & g1 | c3 & ~g4)
+           | r3 & (c0 & ~g6 | c1 & ~a3 | c2 & ~a4 | c3 & a4);
+  }
+
+  static void s3(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & ~g2 | c1 & g4 | c2 & g6 | c3 & ~g6)
+           | r1 & (c0 & ~g6 | c1 & g8 | c2 & a4 | c3 & ~g8)
+           | r2 & (c0 & ~g6 | c1 & ~a3 | c2 & ~g6 | c3 & g6)
+           | r3 & (c0 & g6 | c1 & g6 | c2 & g6 | c3 & ~g6);
+    out[1] = r0 & (c0 & g8 | c1 & ~g2 | c2 & ~g1 | c3 & g2)
+           | r1 & (c0 & ~a3 | c1 & g6 | c2 & a3 | c3 & ~a4)
+           | r2 & (c0 & ~g8 | c1 & g2 | c2 & g8 | c3 & ~g2)
+           | r3 & (c0 & g4 | c1 & ~g6 | c2 & ~g8 | c3 & a4);
+    out[2] = r0 & (c0 & ~g6 | c1 & ~g8 | c2 & g8 | c3 & ~a4)
+           | r1 & (c0 & g2 | c1 & ~g2 | c2 & ~g6 | c3 & g6)
+           | r2 & (c0 & g2 | c1 & g6 | c2 & ~a4 | c3 & ~g1)
+           | r3 & (c0 & g2 | c1 & ~g6 | c2 & ~g1 | c3 & ~a4);
+    out[3] = r0 & (c0 & g4 | c1 & ~g1 | c2 & ~g4 | c3 & g1)
+           | r1 & (c0 & ~g4 | c1 & g1 | c2 & g4 | c3 & ~g1)
+           | r2 & (c0 & ~g6 | c1 & g6 | c2 & ~a3 | c3 & ~g6)
+           | r3 & (c0 & ~a4 | c1 & a4 | c2 & a4 | c3 & ~a3);
+  }
+
+  static void s4(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & g6 | c1 & a3 | c2 & g4 | c3 & ~g4)
+           | r1 & (c0 & ~g8 | c1 & g2 | c2 & g8 | c3 & ~g1)
+           | r2 & (c0 & ~a4 | c1 & ~g4 | c2 & ~g6 | c3 & g4)
+           | r3 & (c0 & g2 | c1 & ~g2 | c2 & ~g6 | c3 & ~g6);
+    out[1] = r0 & (c0 & ~g8 | c1 & g2 | c2 & g8 | c3 & ~g1)
+           | r1 & (c0 & ~g6 | c1 & ~a3 | c2 & ~g4 | c3 & g4)
+           | r2 & (c0 & g2 | c1 & ~g2 | c2 & ~g6 | c3 & ~g6)
+           | r3 & (c0 & a4 | c1 & g4 | c2 & g6 | c3 & ~g4);
+    out[2] = r0 & (c0 & ~g2 | c1 & a4 | c2 & g2 | c3 & ~g6)
+           | r1 & (c0 & g4 | c1 & ~g4 | c2 & g6 | c3 & g6)
+           | r2 & (c0 & ~a3 | c1 & g6 | c2 & ~g2 | c3 & g2)
+           | r3 & (c0 & ~g4 | c1 & g1 | c2 & g8 | c3 & ~g1);
+    out[3] = r0 & (c0 & ~g4 | c1 & g4 | c2 & ~g6 | c3 & ~g6)
+           | r1 & (c0 & ~g2 | c1 & a4 | c2 & g2 | c3 & ~g6)
+           | r2 & (c0 & g4 | c1 & ~g1 | c2 & ~g8 | c3 & g1)
+           | r3 & (c0 & ~a3 | c1 & g6 | c2 & ~g2 | c3 & g2);
+  }
+
+  static void s5(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & g2 | c1 & g6 | c2 & ~g6 | c3 & ~g2)
+           | r1 & (c0 & ~g4 | c1 & g4 | c2 & a3 | c3 & g6)
+           | r2 & (c0 & g8 | c1 & ~g4 | c2 & ~g8 | c3 & g8)
+           | r3 & (c0 & ~g8 | c1 & a4 | c2 & a4 | c3 & g1);
+    out[1] = r0 & (c0 & g6 | c1 & ~g6 | c2 & a4 | c3 & ~a4)
+           | r1 & (c0 & ~g6 | c1 & ~g8 | c2 & ~a4 | c3 & g8)
+           | r2 & (c0 & g1 | c1 & g6 | c2 & ~g2 | c3 & ~g6)
+           | r3 & (c0 & a3 | c1 & a4 | c2 & ~a3 | c3 & g6);
+    out[2] = r0 & (c0 & g1 | c1 | c2 & a3 | c3 & g4)
+           | r1 & (c0 & ~g8 | c1 & g2 | c2 & a3 | c3 & ~g6)
+           | r2 & (c0 & a4 | c1 & ~a4 | c2 & g1 | c3 & ~g4)
+           | r3 & (c0 & ~g6 | c1 & g6 | c2 & ~a3 | c3 & ~g6);
+    out[3] = r0 & (c0 & g8 | c1 & ~a4 | c2 & ~g1 | c3 & ~g6)
+           | r1 & (c0 & g2 | c1 & ~g1 | c2 & ~a4 | c3 & ~a3)
+           | r2 & (c0 & a3 | c1 & g6 | c2 & ~g4 | c3 & g2)
+           | r3 & (c0 & ~g6 | c1 & ~g6 | c2 & a4 | c3 & a3);
+  }
+
+  static void s6(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & ~g2 | c1 & ~g6 | c2 & g2 | c3 & ~g6)
+           | r1 & (c0 & ~a3 | c1 & g6 | c2 & a3 | c3 & a4)
+           | r2 & (c0 & ~g8 | c1 & g6 | c2 & g8 | c3 & g6)
+           | r3 & (c0 & g8 | c1 & ~g2 | c2 & ~a3 | c3 & a3);
+    out[1] = r0 & (c0 & ~g6 | c1 & g4 | c2 & a4 | c3 & ~g8)
+           | r1 & (c0 & g6 | c1 & ~g4 | c2 & ~g2)
+           | r2 & (c0 & ~g1 | c1 & g4 | c2 & ~a4 | c3 & a4)
+           | r3 & (c0 & ~g6 | c1 & g6 | c2 & a4 | c3 & ~g6);
+    out[2] = r0 & (c0 & a3 | c1 & g6 | c2 & g4 | c3 & ~g4)
+           | r1 & (c0 & ~g4 | c1 & g1 | c2 & ~g6 | c3 & g6)
+           | r2 & (c0 & g6 | c1 & ~g6 | c2 & ~g6 | c3 & a3)
+           | r3 & (c0 & g6 | c1 & a3 | c2 & ~g4 | c3 & g1);
+    out[3] = r0 & (c0 & a4 | c1 & g1 | c2 & g6 | c3 & ~g1)
+           | r1 & (c0 & g2 | c1 & ~g2 | c2 & g6 | c3 & g6)
+           | r2 & (c0 & ~g2 | c1 & g8 | c2 & g1 | c3 & ~g8)
+           | r3 & (c0 & g2 | c1 & ~g8 | c2 & ~g2 | c3 & g8);
+  }
+
+  static void s7(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & a4 | c1 & ~g2 | c2 & g6 | c3 & g2)
+           | r1 & (c0 & ~a4 | c1 & a4 | c2 & ~g6 | c3 & g6)
+           | r2 & (c0 & a3 | c1 & ~g6 | c2 & ~g4 | c3 & g4)
+           | r3 & (c0 & ~g1 | c1 & g4 | c2 & ~g6 | c3 & ~g6);
+    out[1] = r0 & (c0 & ~g6 | c1 & ~g6 | c2 & a4 | c3 & ~a4)
+           | r1 & (c0 & ~g6 | c1 & g1 | c2 & ~g2 | c3 & a4)
+           | r2 & (c0 & a4 | c1 & ~g2 | c2 & g6 | c3 & g2)
+           | r3 & (c0 & ~a4 | c1 & a4 | c2 & a4 | c3 & ~g6);
+    out[2] = r0 & (c0 & ~g1 | c1 & g1 | c2 & ~g6 | c3 & g6)
+           | r1 & (c0 & a3 | c1 & g8 | c2 & ~a3 | c3 & ~g4)
+           | r2 & (c0 & g4 | c1 & ~g1 | c2 & ~g8 | c3 & g8)
+           | r3 & (c0 & ~a3 | c1 & a3 | c2 & g8 | c3 & ~g8);
+    out[3] = r0 & (c0 & g2 | c1 & ~g6 | c2 & ~g2 | c3 & ~g6)
+           | r1 & (c0 & ~g2 | c1 & g6 | c2 & g6 | c3 & g2)
+           | r2 & (c0 & ~g2 | c1 & g6 | c2 & g2 | c3 & g6)
+           | r3 & (c0 & g6 | c1 & ~g6 | c2 & ~g4 | c3 & g4);
+  }
+
+  static void s8(long a0, long a1, long a2, long a3, long a4, long a5, long[] out) {
+    long r0 = ~a0 & ~a5, r1 = ~a0 & a5, r2 = a0 & ~a5, r3 = a0 & a5;
+    long c0 = ~a1 & ~a2, c1 = ~a1 & a2, c2 = a1 & ~a2, c3 = a1 & a2;
+    long g1 = ~a3 & ~a4, g2 = ~a3 & a4, g4 = a3 & ~a4, g8 = a3 & a4, g6 = a3 ^ a4;
+
+    out[0] = r0 & (c0 & ~a4 | c1 & g6 | c2 & ~g4 | c3 & g4)
+           | r1 & (c0 & ~g1 | c1 & g1 | c2 & ~g6 | c3 & g6)
+           | r2 & (c0 & g2 | c1 & ~g8 | c2 & a3 | c3 & ~g6)
+           | r3 & (c0 & g4 | c1 & ~g1 | c2 & ~g8 | c3 & g8);
+    out[1] = r0 & (c0 & ~g6 | c1 & ~a3 | c2 & g8 | c3 & ~g2)
+           | r1 & (c0 & g6 | c1 & a3 | c2 & ~g8 | c3 & g2)
+           | r2 & (c0 & ~a4 | c1 & g6 | c2 & a4 | c3 & ~a4)
+           | r3 & (c0 & a3 | c1 & ~g6 | c2 & ~a3 | c3 & g6);
+    out[2] = r0 & (c0 & g2 | c1 & ~g8 | c2 & ~g2 | c3 & g8)
+           | r1 & (c0 & g2 | c1 & ~g8 | c2 & a3 | c3 & a4)
+           | r2 & (c0 & ~a3 | c1 & a3 | c2 & g6 | c3 & ~a3)
+           | r3 & (c0 & ~g2 | c1 & g2 | c2 & g1 | c3 & ~g2);
+    out[3] = r0 & (c0 & g1 | c1 & ~g1 | c2 & g6 | c3 & ~g6)
+           | r1 & (c0 & ~g8 | c1 & g6 | c2 & a4 | c3 & g4)
+           | r2 & (c0 & ~g4 | c1 & g1 | c2 & g8 | c3 & ~g8)
+           | r3 & (c0 & a4 | c1 & g8 | c2 & ~a4 | c3 & ~g4);
+  }
+}
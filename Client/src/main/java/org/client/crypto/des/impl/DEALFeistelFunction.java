@@ -3,10 +3,28 @@ package org.client.crypto.des.impl;
 import org.client.crypto.IFeistelFunction;
 import org.client.crypto.des.DES;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
+
 public class DEALFeistelFunction implements IFeistelFunction {
+  // Ключи раундов повторяются от блока к блоку, поэтому расписание DES строится один раз на ключ
+  private final Map<ByteBuffer, long[]> schedules = new ConcurrentHashMap<>();
+
   @Override
   public byte[] encrypt(byte[] text, byte[] key) {
-    DES des = new DES(key);
-    return des.encryption(text);
+    if (text == null || text.length != 8) {
+      throw new IllegalArgumentException("Text must be 8 bytes");
+    }
+
+    long[] roundKeys = schedules.computeIfAbsent(ByteBuffer.wrap(key.clone()), _ -> DES.schedule(key));
+
+    byte[] res = new byte[8];
+    longToByteArrayBigEndian(DES.encrypt(byteArrayToLongBigEndian(text, 0, 8), roundKeys), res, 0, 8);
+
+    return res;
   }
 }
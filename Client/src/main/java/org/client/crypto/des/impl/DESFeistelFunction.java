@@ -1,24 +1,57 @@
 package org.client.crypto.des.impl;
 
 import org.client.crypto.IFeistelFunction;
+import org.client.crypto.permutations.CompiledPermutation;
 
 import static org.client.crypto.operations.BitOperations.*;
 import static org.client.crypto.enums.IndexingRule.HIGHEST1;
-import static org.client.crypto.permutations.Permutations.rearrange;
 import static org.client.crypto.permutations.matrices.MEncryption.*;
 
 public class DESFeistelFunction implements IFeistelFunction {
+  private static final CompiledPermutation E_PERMUTATION = new CompiledPermutation(E, 4, HIGHEST1);
+  private static final CompiledPermutation P_PERMUTATION = new CompiledPermutation(P, 4, HIGHEST1);
+  private static final int[][] SP = spBoxes();
+
   @Override
   public byte[] encrypt(byte[] text, byte[] key) {
     if (text.length != 4 || key.length != 6) {
       throw new IllegalArgumentException("Wrong length");
     }
 
-    byte[] ER = rearrange(text, E, HIGHEST1);
+    byte[] ER = E_PERMUTATION.apply(text);
     byte[] B = blocksB(xor(ER, key));
     byte[] SB = conversionS(B);
 
-    return rearrange(gluingB(SB), P, HIGHEST1);
+    return P_PERMUTATION.apply(gluingB(SB));
+  }
+
+  /// То же преобразование над 32-битной половиной блока и 48-битным ключом раунда:
+  /// расширение E - четыре побайтовые таблицы, S-блоки вместе с P - восемь таблиц SP
+  public int encrypt(int text, long key) {
+    long B = E_PERMUTATION.apply(Integer.toUnsignedLong(text)) ^ key;
+
+    return SP[0][(int) (B >>> 42) & 0x3F] ^ SP[1][(int) (B >>> 36) & 0x3F]
+         ^ SP[2][(int) (B >>> 30) & 0x3F] ^ SP[3][(int) (B >>> 24) & 0x3F]
+         ^ SP[4][(int) (B >>> 18) & 0x3F] ^ SP[5][(int) (B >>> 12) & 0x3F]
+         ^ SP[6][(int) (B >>> 6) & 0x3F]  ^ SP[7][(int) B & 0x3F];
+  }
+
+  /// SP[j][b] = P(S_j(b)), где выход S_j стоит на своём месте в 32-битном слове.
+  /// P линейна, поэтому P(S_1 | ... | S_8) = SP[0][b_1] ^ ... ^ SP[7][b_8].
+  private static int[][] spBoxes() {
+    int[][] res = new int[8][64];
+
+    for (int j = 0; j < 8; j++) {
+      for (int b = 0; b < 64; b++) {
+        int column = (b >>> 1) & 0xF;
+        int row = ((b >>> 4) & 0b10) | (b & 1);
+
+        long s = (long) S.get(j)[row][column] << (28 - 4 * j);
+        res[j][b] = (int) P_PERMUTATION.apply(s);
+      }
+    }
+
+    return res;
   }
 
   private byte[] blocksB(byte[] text) {
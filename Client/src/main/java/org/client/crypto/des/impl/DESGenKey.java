@@ -1,6 +1,7 @@
 package org.client.crypto.des.impl;
 
 import org.client.crypto.IGenKey;
+import org.client.crypto.permutations.CompiledPermutation;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,10 +9,12 @@ import java.util.concurrent.*;
 
 import static org.client.crypto.operations.BitOperations.*;
 import static org.client.crypto.enums.IndexingRule.HIGHEST1;
-import static org.client.crypto.permutations.Permutations.rearrange;
 import static org.client.crypto.permutations.matrices.MGenKey.*;
 
 public class DESGenKey implements IGenKey {
+  private static final CompiledPermutation START_PERMUTATION = new CompiledPermutation(startP, 8, HIGHEST1);
+  private static final CompiledPermutation END_PERMUTATION = new CompiledPermutation(endP, 7, HIGHEST1);
+
   @Override
   public List<byte[]> genKey(byte[] inputKey) {
     List<byte[]> res = new ArrayList<>(16);
@@ -28,7 +31,7 @@ public class DESGenKey implements IGenKey {
       extKey = inputKey;
     }
 
-    extKey = rearrange(extKey, startP, HIGHEST1);
+    extKey = START_PERMUTATION.apply(extKey);
     byte [] extKeyR = new byte[7];
     System.arraycopy(extKey, 0, extKeyR, 0, 7);
 
@@ -50,7 +53,7 @@ public class DESGenKey implements IGenKey {
     }
 
     for (int i = 0; i < 16; i++) {
-      res.add(rearrange(CD.get(i), endP, HIGHEST1));
+      res.add(END_PERMUTATION.apply(CD.get(i)));
     }
 
     return res;
@@ -0,0 +1,6 @@
+package org.client.crypto.enums;
+
+public enum FileAccessMode {
+  BUFFERED,
+  MAPPED
+}
@@ -3,7 +3,21 @@ package org.client.crypto.loki97;
 import org.client.crypto.SymmetricEncryption;
 import org.client.crypto.loki97.impl.LOKI97FeistelCipher;
 
+import static org.client.crypto.loki97.boxes.Sboxes.initS1;
+import static org.client.crypto.loki97.boxes.Sboxes.initS2;
+
 public class LOKI97 extends LOKI97FeistelCipher implements SymmetricEncryption {
+  /// Общие S-блоки для всех экземпляров, созданных конструктором LOKI97(byte[]): вычисляются
+  /// один раз, при первом обращении. Наружу массивы не отдаются, поэтому изменить их некому
+  private static class SharedBoxes {
+    private static final byte[] S1 = initS1();
+    private static final byte[] S2 = initS2();
+  }
+
+  public LOKI97(byte[] inputKey) {
+    this(inputKey, SharedBoxes.S1, SharedBoxes.S2);
+  }
+
   public LOKI97(byte[] inputKey, byte[] s1, byte[] s2) {
     super(inputKey, s1, s2);
   }
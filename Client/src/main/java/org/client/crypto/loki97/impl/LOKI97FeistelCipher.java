@@ -1,14 +1,11 @@
 package org.client.crypto.loki97.impl;
 
-import java.util.Arrays;
-import java.util.List;
-
 import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
-import static org.client.crypto.operations.ArrayOperations.concatLongToByteArray;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
 
 public class LOKI97FeistelCipher {
   private final LOKI97FeistelFunction f;
-  private final List<Long> SK;
+  private final long[] SK;
 
   public LOKI97FeistelCipher(byte[] inputKey, byte[] s1, byte[] s2) {
     f = new LOKI97FeistelFunction(s1, s2);
@@ -16,34 +13,50 @@ public class LOKI97FeistelCipher {
   }
 
   public byte[] encrypt(byte[] text) {
-    long L = byteArrayToLongBigEndian(Arrays.copyOfRange(text, 0, 8));
-    long R = byteArrayToLongBigEndian(Arrays.copyOfRange(text, 8, 16));
+    byte[] res = new byte[16];
+    encryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  public byte[] decrypt(byte[] text) {
+    byte[] res = new byte[16];
+    decryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  public void encryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    long L = byteArrayToLongBigEndian(in, inOff, 8);
+    long R = byteArrayToLongBigEndian(in, inOff + 8, 8);
 
     long prevR;
 
     for (int i = 1; i <= 16; i++) {
       prevR = R;
 
-      R = L ^ f.encrypt(R + SK.get(3 * i - 2 - 1), SK.get(3 * i - 1 - 1));
-      L = prevR + SK.get(3 * i - 2 - 1) + SK.get(3 * i - 1);
+      R = L ^ f.encrypt(R + SK[3 * i - 2 - 1], SK[3 * i - 1 - 1]);
+      L = prevR + SK[3 * i - 2 - 1] + SK[3 * i - 1];
     }
 
-    return concatLongToByteArray(R, L);
+    longToByteArrayBigEndian(R, out, outOff, 8);
+    longToByteArrayBigEndian(L, out, outOff + 8, 8);
   }
 
-  public byte[] decrypt(byte[] text) {
-    long R = byteArrayToLongBigEndian(Arrays.copyOfRange(text, 0, 8));
-    long L = byteArrayToLongBigEndian(Arrays.copyOfRange(text, 8, 16));
+  public void decryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    long R = byteArrayToLongBigEndian(in, inOff, 8);
+    long L = byteArrayToLongBigEndian(in, inOff + 8, 8);
 
     long prevL;
 
     for (int i = 16; i >= 1; i--) {
       prevL = L;
 
-      L = R ^ f.encrypt(L - SK.get(3 * i - 1), SK.get(3 * i - 1 - 1));
-      R = prevL - SK.get(3 * i - 1) - SK.get(3 * i - 2 - 1);
+      L = R ^ f.encrypt(L - SK[3 * i - 1], SK[3 * i - 1 - 1]);
+      R = prevL - SK[3 * i - 1] - SK[3 * i - 2 - 1];
     }
 
-    return concatLongToByteArray(L, R);
+    longToByteArrayBigEndian(L, out, outOff, 8);
+    longToByteArrayBigEndian(R, out, outOff + 8, 8);
   }
 }
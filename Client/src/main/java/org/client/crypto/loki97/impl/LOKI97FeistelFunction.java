@@ -1,11 +1,25 @@
 package org.client.crypto.loki97.impl;
 
+import org.client.crypto.permutations.CompiledPermutation;
+
 import static org.client.crypto.enums.IndexingRule.LOWEST0;
-import static org.client.crypto.operations.BitOperations.getBits;
-import static org.client.crypto.permutations.Permutations.rearrange;
 import static org.client.crypto.permutations.matrices.MLOKI97.LOKI97Permutation;
 
 public class LOKI97FeistelFunction {
+  private static final CompiledPermutation P_PERMUTATION = new CompiledPermutation(LOKI97Permutation, 8, LOWEST0);
+
+  /// PS[i][v] - значение v на выходе i-го (со старшего) S-блока Sa, уже переставленное P.
+  /// Таблицы не зависят от S-блоков и общие для всех экземпляров (8 * 256 long = 16 КБ)
+  private static final long[][] PS = new long[8][256];
+
+  static {
+    for (int i = 0; i < 8; i++) {
+      for (int v = 0; v < 256; v++) {
+        PS[i][v] = P_PERMUTATION.apply((long) v << (56 - 8 * i));
+      }
+    }
+  }
+
   private final byte[] S1;
   private final byte[] S2;
 
@@ -15,7 +29,7 @@ public class LOKI97FeistelFunction {
   }
 
   public long encrypt(long A, long B) { //B == SKr
-    return Sb(P(Sa(E(KP(A, B)))), B);
+    return Sb(SaP(KP(A, B)), B);
   }
 
   private long KP(long A, long B) {
@@ -27,69 +41,28 @@ public class LOKI97FeistelFunction {
     return ((long) ((Al & ~SKr) | (Ar & SKr)) << 32) | (((Ar & ~SKr) | (Al & SKr)) & 0xFFFFFFFFL);
   }
 
-  private int[] E(long A) {
-    int[] res = new int[8];
-
-    res[0] = (int) ((getBits(A, 4, 0) << 8) | getBits(A, 63, 56));
-    res[1] = (int) (getBits(A, 58, 48));
-    res[2] = (int) (getBits(A, 52, 40));
-    res[3] = (int) (getBits(A, 42, 32));
-    res[4] = (int) (getBits(A, 34, 24));
-    res[5] = (int) (getBits(A, 28, 16));
-    res[6] = (int) (getBits(A, 18, 8));
-    res[7] = (int) (getBits(A, 12, 0));
-
-    return res;
-  }
-
-  private byte[] Sa(int[] blocks) {
-    byte[] res = new byte[8];
-
-    res[0] = S1[blocks[0]];
-    res[1] = S2[blocks[1]];
-    res[2] = S1[blocks[2]];
-    res[3] = S2[blocks[3]];
-    res[4] = S2[blocks[4]];
-    res[5] = S1[blocks[5]];
-    res[6] = S2[blocks[6]];
-    res[7] = S1[blocks[7]];
-
-    return res;
-  }
-
-  private long Sb(byte[] blocks, long B) {
-    long res;
-
-    int[] SKl = getSKl(B);
-
-    res =  Byte.toUnsignedLong(S2[(SKl[0] << 8) | Byte.toUnsignedInt(blocks[0])]) << 56;
-    res |= Byte.toUnsignedLong(S2[(SKl[1] << 8) | Byte.toUnsignedInt(blocks[1])]) << 48;
-    res |= Byte.toUnsignedLong(S1[(SKl[2] << 8) | Byte.toUnsignedInt(blocks[2])]) << 40;
-    res |= Byte.toUnsignedLong(S1[(SKl[3] << 8) | Byte.toUnsignedInt(blocks[3])]) << 32;
-    res |= Byte.toUnsignedLong(S2[(SKl[4] << 8) | Byte.toUnsignedInt(blocks[4])]) << 24;
-    res |= Byte.toUnsignedLong(S2[(SKl[5] << 8) | Byte.toUnsignedInt(blocks[5])]) << 16;
-    res |= Byte.toUnsignedLong(S1[(SKl[6] << 8) | Byte.toUnsignedInt(blocks[6])]) << 8;
-    res |= Byte.toUnsignedLong(S1[(SKl[7] << 8) | Byte.toUnsignedInt(blocks[7])]);
-
-    return res;
+  // Расширение E, подстановка Sa и перестановка P: блоки E(A) сразу используются как индексы S-блоков,
+  // а их выходы - как индексы таблиц PS
+  private long SaP(long A) {
+    return PS[0][S1[(int) (((A & 0x1F) << 8) | (A >>> 56))] & 0xFF]
+         | PS[1][S2[(int) (A >>> 48) & 0x7FF] & 0xFF]
+         | PS[2][S1[(int) (A >>> 40) & 0x1FFF] & 0xFF]
+         | PS[3][S2[(int) (A >>> 32) & 0x7FF] & 0xFF]
+         | PS[4][S2[(int) (A >>> 24) & 0x7FF] & 0xFF]
+         | PS[5][S1[(int) (A >>> 16) & 0x1FFF] & 0xFF]
+         | PS[6][S2[(int) (A >>> 8) & 0x7FF] & 0xFF]
+         | PS[7][S1[(int) A & 0x1FFF] & 0xFF];
   }
 
-  private byte[] P(byte[] blocks) {
-    return rearrange(blocks, LOKI97Permutation, LOWEST0);
-  }
-
-  private int[] getSKl(long B) {
-    int[] res = new int[8];
-
-    res[0] = (int) (getBits(B, 63, 61));
-    res[1] = (int) (getBits(B, 60, 58));
-    res[2] = (int) (getBits(B, 57, 53));
-    res[3] = (int) (getBits(B, 52, 48));
-    res[4] = (int) (getBits(B, 47, 45));
-    res[5] = (int) (getBits(B, 44, 42));
-    res[6] = (int) (getBits(B, 41, 37));
-    res[7] = (int) (getBits(B, 36, 32));
-
-    return res;
+  // Старшие биты индекса S-блока берутся из B: по 3 бита для S2 и по 5 бит для S1
+  private long Sb(long blocks, long B) {
+    return Byte.toUnsignedLong(S2[(int) (B >>> 53) & 0x700 | (int) (blocks >>> 56)]) << 56
+         | Byte.toUnsignedLong(S2[(int) (B >>> 50) & 0x700 | (int) (blocks >>> 48) & 0xFF]) << 48
+         | Byte.toUnsignedLong(S1[(int) (B >>> 45) & 0x1F00 | (int) (blocks >>> 40) & 0xFF]) << 40
+         | Byte.toUnsignedLong(S1[(int) (B >>> 40) & 0x1F00 | (int) (blocks >>> 32) & 0xFF]) << 32
+         | Byte.toUnsignedLong(S2[(int) (B >>> 37) & 0x700 | (int) (blocks >>> 24) & 0xFF]) << 24
+         | Byte.toUnsignedLong(S2[(int) (B >>> 34) & 0x700 | (int) (blocks >>> 16) & 0xFF]) << 16
+         | Byte.toUnsignedLong(S1[(int) (B >>> 29) & 0x1F00 | (int) (blocks >>> 8) & 0xFF]) << 8
+         | Byte.toUnsignedLong(S1[(int) (B >>> 24) & 0x1F00 | (int) blocks & 0xFF]);
   }
 }
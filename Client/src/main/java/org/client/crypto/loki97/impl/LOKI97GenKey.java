@@ -1,8 +1,6 @@
 package org.client.crypto.loki97.impl;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
 
@@ -21,19 +19,19 @@ public class LOKI97GenKey {
     this.keyLength = keyLength;
   }
 
-  public List<Long> genKey(byte[] inputKey) {
+  public long[] genKey(byte[] inputKey) {
     long[] K = getK(inputKey);
-    List<Long> SK = new ArrayList<>();
+    long[] SK = new long[48];
 
     long d = delta;
 
     for (int i = 1; i <= 48; i++) {
-      SK.add(K[3] ^ gFunction(K, d));
+      SK[i - 1] = K[3] ^ gFunction(K, d);
 
       K[3] = K[2];
       K[2] = K[1];
       K[1] = K[0];
-      K[0] = SK.getLast();
+      K[0] = SK[i - 1];
 
       d += delta;
     }
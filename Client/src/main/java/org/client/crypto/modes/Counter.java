@@ -0,0 +1,146 @@
+package org.client.crypto.modes;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
+
+/// Блоки счётчика для CTR и RandomDelta без BigInteger: 128-битная арифметика на двух long.
+/// Результат совпадает с прежним new BigInteger(IV).add(n).toByteArray(), из которого брались
+/// младшие blockSize байт: IV читается как число со знаком, а для отрицательной суммы, короткой
+/// в минимальной записи, старшие байты блока остаются нулями, а не 0xFF.
+/// Блоки длиннее 16 байт по-прежнему считаются через BigInteger.
+public class Counter {
+  private static final int MAX_BLOCK_SIZE = 16;
+
+  private final int blockSize;
+
+  private final BigInteger count;
+  private final BigInteger delta;
+  private final BigInteger modulus;
+
+  // IV как 128-битное число со знаком
+  private final long countHi;
+  private final long countLo;
+
+  // |IV| для отрицательного IV: сумма отрицательна, пока n меньше него
+  private final boolean negative;
+  private final long absHi;
+  private final long absLo;
+
+  // delta mod 2^(8 * blockSize)
+  private final long deltaHi;
+  private final long deltaLo;
+
+  public Counter(byte[] IV, BigInteger delta) {
+    blockSize = IV.length;
+
+    count = new BigInteger(IV);
+    modulus = BigInteger.ONE.shiftLeft(8 * blockSize);
+    this.delta = delta.mod(modulus);
+
+    if (blockSize > MAX_BLOCK_SIZE) {
+      countHi = countLo = absHi = absLo = deltaHi = deltaLo = 0;
+      negative = false;
+      return;
+    }
+
+    int loLength = Math.min(blockSize, Long.BYTES);
+    int hiLength = blockSize - loLength;
+
+    long lo = byteArrayToLongBigEndian(IV, hiLength, loLength);
+    long hi = byteArrayToLongBigEndian(IV, 0, hiLength);
+
+    // Расширение знака до 128 бит
+    if (hiLength == 0) {
+      lo = lo << (64 - 8 * loLength) >> (64 - 8 * loLength);
+      hi = lo >> 63;
+    } else {
+      hi = hi << (64 - 8 * hiLength) >> (64 - 8 * hiLength);
+    }
+
+    countHi = hi;
+    countLo = lo;
+
+    negative = hi < 0;
+    absLo = -lo;
+    absHi = ~hi + (lo == 0 ? 1 : 0);
+
+    deltaHi = this.delta.shiftRight(64).longValue();
+    deltaLo = this.delta.longValue();
+  }
+
+  /// IV + i
+  public void ctr(long i, byte[] res) {
+    ctr(i, res, 0);
+  }
+
+  /// IV + i в res[offset, offset + blockSize)
+  public void ctr(long i, byte[] res, int offset) {
+    if (blockSize > MAX_BLOCK_SIZE) {
+      copyLow(count.add(BigInteger.valueOf(i)), res, offset);
+      return;
+    }
+
+    add(0, i, res, offset);
+  }
+
+  /// IV + (delta * i mod 2^(8 * blockSize))
+  public void randomDelta(long i, byte[] res) {
+    randomDelta(i, res, 0);
+  }
+
+  public void randomDelta(long i, byte[] res, int offset) {
+    if (blockSize > MAX_BLOCK_SIZE) {
+      copyLow(count.add(delta.multiply(BigInteger.valueOf(i)).mod(modulus)), res, offset);
+      return;
+    }
+
+    long lo = deltaLo * i;
+    long hi = Math.unsignedMultiplyHigh(deltaLo, i) + deltaHi * i;
+
+    int bits = 8 * blockSize;
+    add(hi & maskHi(bits), lo & maskLo(bits), res, offset);
+  }
+
+  /// n >= 0
+  private void add(long nHi, long nLo, byte[] res, int offset) {
+    long lo = countLo + nLo;
+    long hi = countHi + nHi + (Long.compareUnsigned(lo, countLo) < 0 ? 1 : 0);
+
+    int bits = 8 * blockSize;
+
+    boolean negativeSum = negative && (Long.compareUnsigned(nHi, absHi) < 0 ||
+            (nHi == absHi && Long.compareUnsigned(nLo, absLo) < 0));
+
+    // toByteArray отрицательного числа - минимальная запись со знаковым битом
+    if (negativeSum) {
+      int bitLength = ~hi != 0 ? 128 - Long.numberOfLeadingZeros(~hi) : 64 - Long.numberOfLeadingZeros(~lo);
+      bits = Math.min(bits, (bitLength / 8 + 1) * 8);
+    }
+
+    hi &= maskHi(bits);
+    lo &= maskLo(bits);
+
+    int loLength = Math.min(blockSize, Long.BYTES);
+    longToByteArrayBigEndian(hi, res, offset, blockSize - loLength);
+    longToByteArrayBigEndian(lo, res, offset + blockSize - loLength, loLength);
+  }
+
+  private void copyLow(BigInteger sum, byte[] res, int offset) {
+    byte[] bytes = sum.toByteArray();
+
+    int length = Math.min(bytes.length, blockSize);
+    Arrays.fill(res, offset, offset + blockSize - length, (byte) 0);
+    System.arraycopy(bytes, bytes.length - length, res, offset + blockSize - length, length);
+  }
+
+  private static long maskLo(int bits) {
+    return bits >= 64 ? -1L : (1L << bits) - 1;
+  }
+
+  private static long maskHi(int bits) {
+    return bits >= 128 ? -1L : bits > 64 ? (1L << (bits - 64)) - 1 : 0;
+  }
+}
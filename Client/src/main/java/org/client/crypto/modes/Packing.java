@@ -1,8 +1,8 @@
 package org.client.crypto.modes;
 
 import org.client.crypto.enums.PackingMode;
+import org.client.crypto.operations.RandomSource;
 
-import java.security.SecureRandom;
 import java.util.Arrays;
 
 public class Packing {
@@ -79,10 +79,7 @@ public class Packing {
 
     System.arraycopy(input, 0, res, 0, inputLen);
 
-    SecureRandom secureRandom = new SecureRandom();
-    for (int i = inputLen; i < size - 1; ++i) {
-      res[i] = (byte) (secureRandom.nextInt(256));
-    }
+    RandomSource.nextBytes(res, inputLen, size - 1 - inputLen);
     res[size - 1] = (byte) (size - inputLen);
 
     return res;
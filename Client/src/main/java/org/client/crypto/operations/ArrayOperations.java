@@ -1,11 +1,15 @@
 package org.client.crypto.operations;
 
-import java.nio.ByteBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.List;
 
-import static org.client.crypto.operations.BitOperations.concatByteArrays;
-
 public class ArrayOperations {
+  // Целое слово читается и пишется одной операцией вместо цикла по байтам
+  private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
   public static byte[] listToArray(List<byte[]> list) {
     if (list == null || list.isEmpty()) return new byte[0];
     if (list.size() == 1) return list.getFirst();
@@ -40,31 +44,77 @@ public class ArrayOperations {
       throw new IllegalArgumentException("Array length must be <= " + Long.BYTES + " bytes");
     }
 
+    return byteArrayToLongLittleEndian(bytes, 0, bytes.length);
+  }
+
+  public static long byteArrayToLongBigEndian(byte[] bytes) {
+    if (bytes.length > Long.BYTES) {
+      throw new IllegalArgumentException("Array length must be <= " + Long.BYTES + " bytes");
+    }
+
+    return byteArrayToLongBigEndian(bytes, 0, bytes.length);
+  }
+
+  public static long byteArrayToLongBigEndian(byte[] bytes, int offset, int length) {
+    if (length == Long.BYTES) {
+      return (long) LONG_BE.get(bytes, offset);
+    }
+
     long value = 0;
-    for (int i = 0; i < bytes.length; i++) {
-      value |= Byte.toUnsignedLong(bytes[i]) << (i * 8);
+    for (int i = 0; i < length; i++) {
+      value = (value << 8) | Byte.toUnsignedLong(bytes[offset + i]);
     }
 
     return value;
   }
 
-  public static long byteArrayToLongBigEndian(byte[] bytes) {
-    if (bytes.length > Long.BYTES) {
-      throw new IllegalArgumentException("Array length must be <= " + Long.BYTES + " bytes");
+  public static long byteArrayToLongLittleEndian(byte[] bytes, int offset, int length) {
+    if (length == Long.BYTES) {
+      return (long) LONG_LE.get(bytes, offset);
     }
 
     long value = 0;
-    for (int i = 0; i < bytes.length; i++) {
-      value |= Byte.toUnsignedLong(bytes[i]) << ((bytes.length - 1 - i) * 8);
+    for (int i = length - 1; i >= 0; i--) {
+      value = (value << 8) | Byte.toUnsignedLong(bytes[offset + i]);
     }
 
     return value;
   }
 
+  public static void longToByteArrayBigEndian(long value, byte[] bytes, int offset, int length) {
+    if (length == Long.BYTES) {
+      LONG_BE.set(bytes, offset, value);
+      return;
+    }
+
+    for (int i = length - 1; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  public static void longToByteArrayLittleEndian(long value, byte[] bytes, int offset, int length) {
+    if (length == Long.BYTES) {
+      LONG_LE.set(bytes, offset, value);
+      return;
+    }
+
+    for (int i = 0; i < length; i++) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
   public static byte[] concatLongToByteArray(long L, long R) {
-    byte[] arrL = ByteBuffer.allocate(Long.BYTES).putLong(L).array();
-    byte[] arrR = ByteBuffer.allocate(Long.BYTES).putLong(R).array();
+    byte[] res = new byte[2 * Long.BYTES];
+    concatLongToByteArray(L, R, res, 0);
+
+    return res;
+  }
 
-    return concatByteArrays(arrL, arrR);
+  /// L и R подряд в res[offset, offset + 16), старшим байтом вперёд
+  public static void concatLongToByteArray(long L, long R, byte[] res, int offset) {
+    LONG_BE.set(res, offset, L);
+    LONG_BE.set(res, offset + Long.BYTES, R);
   }
 }
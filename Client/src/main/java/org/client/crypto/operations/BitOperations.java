@@ -1,6 +1,14 @@
 package org.client.crypto.operations;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
 public class BitOperations {
+  // Вид byte[] как long[] с произвольным смещением: XOR по 8 байт за раз. Порядок байт для XOR
+  // не важен, поэтому берётся родной - без перестановки байт
+  private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
   public static byte bitAt(int bitIndex, byte value) {
     return (byte) ((Byte.toUnsignedInt(value) >>> (7 - bitIndex % 8)) & 1);
   }
@@ -27,14 +35,33 @@ public class BitOperations {
   }
 
   public static byte[] xor(byte[] arr1, byte[] arr2) {
-    int len = arr1.length;
-    byte[] res = new byte[len];
+    byte[] res = new byte[arr1.length];
+    xor(arr1, 0, arr2, 0, res, 0, res.length);
+
+    return res;
+  }
+
+  public static void xor(byte[] arr1, byte[] arr2, byte[] res) {
+    xor(arr1, 0, arr2, 0, res, 0, res.length);
+  }
+
+  /// res ^= arr на участке длиной len
+  public static void xor(byte[] res, int resOff, byte[] arr, int off, int len) {
+    xor(res, resOff, arr, off, res, resOff, len);
+  }
 
-    for (int i = 0; i < len; i++) {
-      res[i] = (byte) (arr1[i] ^ arr2[i]);
+  /// XOR участков массивов длиной len, по аналогии с System.arraycopy, по 8 байт за раз.
+  /// res может совпадать с arr1 или arr2 (в том числе на месте), но не перекрываться с ними со сдвигом
+  public static void xor(byte[] arr1, int off1, byte[] arr2, int off2, byte[] res, int resOff, int len) {
+    int i = 0;
+
+    for (; i <= len - Long.BYTES; i += Long.BYTES) {
+      LONG.set(res, resOff + i, (long) LONG.get(arr1, off1 + i) ^ (long) LONG.get(arr2, off2 + i));
     }
 
-    return res;
+    for (; i < len; i++) {
+      res[resOff + i] = (byte) (arr1[off1 + i] ^ arr2[off2 + i]);
+    }
   }
 
   public static long zeroMask(int bitCount) {
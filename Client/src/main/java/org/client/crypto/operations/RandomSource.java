@@ -0,0 +1,50 @@
+package org.client.crypto.operations;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/// Общий источник случайных байт для IV и набивки ISO10126.
+/// У каждого потока свой DRBG, который создаётся и засевается один раз, и свой буфер: байты
+/// отдаются из буфера, а генератор вызывается раз на BUFFER_SIZE байт. Потоки не делят
+/// ни генератор, ни блокировки, а new SecureRandom() на каждый вызов больше не нужен
+public class RandomSource {
+  private static final int BUFFER_SIZE = 256;
+
+  private static final ThreadLocal<RandomSource> LOCAL = ThreadLocal.withInitial(RandomSource::new);
+
+  private final SecureRandom random;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position = BUFFER_SIZE;
+
+  private RandomSource() {
+    try {
+      random = SecureRandom.getInstance("DRBG");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public static void nextBytes(byte[] bytes) {
+    nextBytes(bytes, 0, bytes.length);
+  }
+
+  public static void nextBytes(byte[] bytes, int offset, int length) {
+    LOCAL.get().fill(bytes, offset, length);
+  }
+
+  private void fill(byte[] bytes, int offset, int length) {
+    while (length > 0) {
+      if (position == BUFFER_SIZE) {
+        random.nextBytes(buffer);
+        position = 0;
+      }
+
+      int n = Math.min(length, BUFFER_SIZE - position);
+      System.arraycopy(buffer, position, bytes, offset, n);
+
+      position += n;
+      offset += n;
+      length -= n;
+    }
+  }
+}
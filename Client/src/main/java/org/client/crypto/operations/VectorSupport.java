@@ -0,0 +1,11 @@
+package org.client.crypto.operations;
+
+/// Доступность jdk.incubator.vector. Инкубаторный модуль подключается только явно, через
+/// --add-modules jdk.incubator.vector, поэтому без флага классы ядер на Vector API
+/// ни разу не загружаются, а шифры работают обычным скалярным кодом
+public class VectorSupport {
+  public static final boolean ENABLED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+  private VectorSupport() {
+  }
+}
@@ -0,0 +1,85 @@
+package org.client.crypto.permutations;
+
+import org.client.crypto.enums.IndexingRule;
+
+import java.util.List;
+
+import static org.client.crypto.operations.ArrayOperations.byteArrayToLongBigEndian;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayBigEndian;
+import static org.client.crypto.permutations.Permutations.rearrange;
+import static org.client.crypto.permutations.Permutations.toArray;
+
+/// Перестановка из permutations.matrices, один раз разложенная в побайтовые таблицы.
+/// tables[i][v] - вклад значения v i-го (со старшего) байта входа в результат; перестановка
+/// линейна, поэтому результат - OR вкладов всех байтов: для 64-битного блока 8 обращений к таблицам.
+/// Результат совпадает с Permutations.rearrange для того же блока P и правила индексации.
+public class CompiledPermutation {
+  private final int inputLength; // байт
+  private final int outputLength; // бит
+  private final boolean lowest;
+  private final long[][] tables;
+
+  public CompiledPermutation(List<Integer> blockP, int inputLength, IndexingRule rule) {
+    if (inputLength < 1 || inputLength > 8) {
+      throw new IllegalArgumentException("Input length must be from 1 to 8 bytes: " + inputLength);
+    }
+
+    if (blockP.size() > 64) {
+      throw new IllegalArgumentException("Permutation block P must not be longer than 64 bits: " + blockP.size());
+    }
+
+    this.inputLength = inputLength;
+    this.outputLength = blockP.size();
+    this.lowest = rule == IndexingRule.LOWEST0 || rule == IndexingRule.LOWEST1;
+
+    int[] P = toArray(blockP);
+    int bits = inputLength * 8;
+
+    tables = new long[inputLength][256];
+    for (int i = 0; i < inputLength; i++) {
+      for (int v = 0; v < 256; v++) {
+        tables[i][v] = rearrange((long) v << (bits - 8 - 8 * i), bits, P, rule);
+      }
+    }
+  }
+
+  /// Вход - inputLength * 8 младших бит text, результат - outputLength младших бит
+  public long apply(long text) {
+    int shift = inputLength * 8;
+    long res = 0;
+
+    for (long[] table : tables) {
+      shift -= 8;
+      res |= table[(int) (text >>> shift) & 0xFF];
+    }
+
+    return res;
+  }
+
+  public byte[] apply(byte[] text) {
+    if (text.length != inputLength) {
+      throw new IllegalArgumentException("Text must be " + inputLength + " bytes");
+    }
+
+    int resLength = (outputLength + 7) / 8;
+    long res = apply(byteArrayToLongBigEndian(text, 0, inputLength));
+
+    // Для HIGHEST-правил результат выровнен по старшему биту первого байта
+    if (!lowest) {
+      res <<= resLength * 8 - outputLength;
+    }
+
+    byte[] bytes = new byte[resLength];
+    longToByteArrayBigEndian(res, bytes, 0, resLength);
+
+    return bytes;
+  }
+
+  public int getInputLength() {
+    return inputLength;
+  }
+
+  public int getOutputLength() {
+    return outputLength;
+  }
+}
@@ -46,6 +46,35 @@ public class Permutations {
     return res;
   }
 
+  /// Та же перестановка для блока длиной не больше 64 бит, записанного в long без выделения памяти.
+  /// Для HIGHEST-правил входные биты нумеруются со старшего из textLength бит, для LOWEST - с младшего.
+  public static long rearrange(long text, int textLength, int[] blockP, IndexingRule rule) {
+    int startIndex = rule == IndexingRule.LOWEST1 || rule == IndexingRule.HIGHEST1 ? 1 : 0;
+    boolean lowest = rule == IndexingRule.LOWEST1 || rule == IndexingRule.LOWEST0;
+
+    long res = 0;
+
+    for (int i = 0; i < blockP.length; i++) {
+      int index = blockP[i] - startIndex;
+
+      if (index >= textLength || index < 0) {
+        throw new IndexOutOfBoundsException("Index of the permutation block P out of bounds. Index: " + index);
+      }
+
+      if (lowest) {
+        res |= ((text >>> index) & 1) << i;
+      } else {
+        res = (res << 1) | ((text >>> (textLength - 1 - index)) & 1);
+      }
+    }
+
+    return res;
+  }
+
+  public static int[] toArray(List<Integer> blockP) {
+    return blockP.stream().mapToInt(Integer::intValue).toArray();
+  }
+
   private static byte getBit(int bitIndex, byte value, boolean lowest, int resIndex) {
     int bit;
 
@@ -1,11 +1,9 @@
 package org.client.crypto.rc5.impl;
 
-import java.util.Arrays;
-import java.util.List;
+import org.client.crypto.operations.VectorSupport;
 
 import static org.client.crypto.operations.ArrayOperations.byteArrayToLongLittleEndian;
-import static org.client.crypto.operations.BitOperations.*;
-import static org.client.crypto.operations.MathOperations.*;
+import static org.client.crypto.operations.ArrayOperations.longToByteArrayLittleEndian;
 
 public class RC5FeistelCipher {
   private final int w; // половина длинны блока(бит)
@@ -13,7 +11,9 @@ public class RC5FeistelCipher {
 
   private final int u; // половина длинны блока(байт)
 
-  private final List<Long> S;
+  private final long[] S;
+  private final int[] S32; // те же ключи для w = 16 и w = 32
+  private final short[] S16; // и для RC5VectorKernel при w = 16
 
   public RC5FeistelCipher(int w, int r, byte[] inputKey) {
     if (inputKey.length > 255) {
@@ -34,36 +34,268 @@ public class RC5FeistelCipher {
     this.u = w / 8;
 
     S = (new RC5GenKey(w, r, inputKey.length)).genKey(inputKey);
+
+    S32 = new int[S.length];
+    S16 = new short[S.length];
+    for (int i = 0; i < S.length; i++) {
+      S32[i] = (int) S[i];
+      S16[i] = (short) S[i];
+    }
   }
 
   public byte[] encrypt(byte[] text) {
-    long A = byteArrayToLongLittleEndian(Arrays.copyOfRange(text, 0, u));
-    long B = byteArrayToLongLittleEndian(Arrays.copyOfRange(text, u, text.length));
+    byte[] res = new byte[u * 2];
+    encryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  public byte[] decrypt(byte[] text) {
+    byte[] res = new byte[u * 2];
+    decryptBlock(text, 0, res, 0);
+
+    return res;
+  }
+
+  public void encryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    switch (w) {
+      case 16 -> encrypt16(in, inOff, out, outOff);
+      case 32 -> encrypt32(in, inOff, out, outOff);
+      default -> encrypt64(in, inOff, out, outOff);
+    }
+  }
+
+  public void decryptBlock(byte[] in, int inOff, byte[] out, int outOff) {
+    switch (w) {
+      case 16 -> decrypt16(in, inOff, out, outOff);
+      case 32 -> decrypt32(in, inOff, out, outOff);
+      default -> decrypt64(in, inOff, out, outOff);
+    }
+  }
+
+  /// Блоки идут пачками по числу полос вектора через RC5VectorKernel, если доступен Vector API.
+  /// Остаток пачки и все блоки без Vector API шифруются по одному
+  public void encryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, false);
+  }
+
+  public void decryptBlocks(byte[] in, int inOff, int count, byte[] out, int outOff) {
+    blocks(in, inOff, count, out, outOff, true);
+  }
+
+  private void blocks(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    int done = 0;
+
+    if (VectorSupport.ENABLED) {
+      done = switch (w) {
+        case 16 -> vector16(in, inOff, count, out, outOff, decrypt);
+        case 32 -> vector32(in, inOff, count, out, outOff, decrypt);
+        default -> vector64(in, inOff, count, out, outOff, decrypt);
+      };
+    }
+
+    for (int k = done; k < count; k++) {
+      if (decrypt) {
+        decryptBlock(in, inOff + 2 * u * k, out, outOff + 2 * u * k);
+      } else {
+        encryptBlock(in, inOff + 2 * u * k, out, outOff + 2 * u * k);
+      }
+    }
+  }
+
+  /// Слова блоков пачки разбираются по массивам A и B, возвращается число обработанных блоков
+
+  private int vector16(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    int lanes = RC5VectorKernel.lanes(16);
+    short[] A = new short[lanes];
+    short[] B = new short[lanes];
+
+    int done = 0;
+    for (; done + lanes <= count; done += lanes) {
+      for (int k = 0; k < lanes; k++) {
+        long block = byteArrayToLongLittleEndian(in, inOff + 4 * (done + k), 4);
+        A[k] = (short) block;
+        B[k] = (short) (block >>> 16);
+      }
+
+      if (decrypt) {
+        RC5VectorKernel.decrypt16(A, B, S16, r);
+      } else {
+        RC5VectorKernel.encrypt16(A, B, S16, r);
+      }
+
+      for (int k = 0; k < lanes; k++) {
+        long block = Short.toUnsignedLong(A[k]) | Short.toUnsignedLong(B[k]) << 16;
+        longToByteArrayLittleEndian(block, out, outOff + 4 * (done + k), 4);
+      }
+    }
+
+    return done;
+  }
+
+  private int vector32(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    int lanes = RC5VectorKernel.lanes(32);
+    int[] A = new int[lanes];
+    int[] B = new int[lanes];
+
+    int done = 0;
+    for (; done + lanes <= count; done += lanes) {
+      for (int k = 0; k < lanes; k++) {
+        long block = byteArrayToLongLittleEndian(in, inOff + 8 * (done + k), 8);
+        A[k] = (int) block;
+        B[k] = (int) (block >>> 32);
+      }
+
+      if (decrypt) {
+        RC5VectorKernel.decrypt32(A, B, S32, r);
+      } else {
+        RC5VectorKernel.encrypt32(A, B, S32, r);
+      }
+
+      for (int k = 0; k < lanes; k++) {
+        long block = Integer.toUnsignedLong(A[k]) | (long) B[k] << 32;
+        longToByteArrayLittleEndian(block, out, outOff + 8 * (done + k), 8);
+      }
+    }
+
+    return done;
+  }
+
+  private int vector64(byte[] in, int inOff, int count, byte[] out, int outOff, boolean decrypt) {
+    int lanes = RC5VectorKernel.lanes(64);
+    long[] A = new long[lanes];
+    long[] B = new long[lanes];
+
+    int done = 0;
+    for (; done + lanes <= count; done += lanes) {
+      for (int k = 0; k < lanes; k++) {
+        A[k] = byteArrayToLongLittleEndian(in, inOff + 16 * (done + k), 8);
+        B[k] = byteArrayToLongLittleEndian(in, inOff + 16 * (done + k) + 8, 8);
+      }
+
+      if (decrypt) {
+        RC5VectorKernel.decrypt64(A, B, S, r);
+      } else {
+        RC5VectorKernel.encrypt64(A, B, S, r);
+      }
 
-    A = moduloAdd(A, S.get(0), w);
-    B = moduloAdd(B, S.get(1), w);
+      for (int k = 0; k < lanes; k++) {
+        longToByteArrayLittleEndian(A[k], out, outOff + 16 * (done + k), 8);
+        longToByteArrayLittleEndian(B[k], out, outOff + 16 * (done + k) + 8, 8);
+      }
+    }
+
+    return done;
+  }
+
+  /// Раунды для каждого размера слова отдельно: сложение по модулю 2^w - обычное
+  /// переполнение int/long, циклический сдвиг - Integer/Long.rotateLeft.
+  /// 16-битное слово хранится в младших битах int и маскируется после сложения и сдвига.
+
+  private void encrypt16(byte[] in, int inOff, byte[] out, int outOff) {
+    int A = (int) byteArrayToLongLittleEndian(in, inOff, 2);
+    int B = (int) byteArrayToLongLittleEndian(in, inOff + 2, 2);
+
+    A = (A + S32[0]) & 0xFFFF;
+    B = (B + S32[1]) & 0xFFFF;
 
     for (int i = 1; i <= r; i++) {
-      A = moduloAdd(leftRotation(A ^ B, B, w), S.get(2 * i),     w);
-      B = moduloAdd(leftRotation(B ^ A, A, w), S.get(2 * i + 1), w);
+      A = (rotateLeft16(A ^ B, B) + S32[2 * i]) & 0xFFFF;
+      B = (rotateLeft16(B ^ A, A) + S32[2 * i + 1]) & 0xFFFF;
     }
 
-    return concatAB(A, B);
+    longToByteArrayLittleEndian(A, out, outOff, 2);
+    longToByteArrayLittleEndian(B, out, outOff + 2, 2);
   }
 
-  public byte[] decrypt(byte[] text) {
-    long A = byteArrayToLongLittleEndian(Arrays.copyOfRange(text, 0, u));
-    long B = byteArrayToLongLittleEndian(Arrays.copyOfRange(text, u, text.length));
+  private void decrypt16(byte[] in, int inOff, byte[] out, int outOff) {
+    int A = (int) byteArrayToLongLittleEndian(in, inOff, 2);
+    int B = (int) byteArrayToLongLittleEndian(in, inOff + 2, 2);
+
+    for (int i = r; i >= 1; i--) {
+      B = rotateRight16((B - S32[2 * i + 1]) & 0xFFFF, A) ^ A;
+      A = rotateRight16((A - S32[2 * i]) & 0xFFFF, B) ^ B;
+    }
+
+    B = (B - S32[1]) & 0xFFFF;
+    A = (A - S32[0]) & 0xFFFF;
+
+    longToByteArrayLittleEndian(A, out, outOff, 2);
+    longToByteArrayLittleEndian(B, out, outOff + 2, 2);
+  }
+
+  private void encrypt32(byte[] in, int inOff, byte[] out, int outOff) {
+    int A = (int) byteArrayToLongLittleEndian(in, inOff, 4);
+    int B = (int) byteArrayToLongLittleEndian(in, inOff + 4, 4);
+
+    A += S32[0];
+    B += S32[1];
+
+    for (int i = 1; i <= r; i++) {
+      A = Integer.rotateLeft(A ^ B, B) + S32[2 * i];
+      B = Integer.rotateLeft(B ^ A, A) + S32[2 * i + 1];
+    }
+
+    longToByteArrayLittleEndian(A, out, outOff, 4);
+    longToByteArrayLittleEndian(B, out, outOff + 4, 4);
+  }
+
+  private void decrypt32(byte[] in, int inOff, byte[] out, int outOff) {
+    int A = (int) byteArrayToLongLittleEndian(in, inOff, 4);
+    int B = (int) byteArrayToLongLittleEndian(in, inOff + 4, 4);
+
+    for (int i = r; i >= 1; i--) {
+      B = Integer.rotateRight(B - S32[2 * i + 1], A) ^ A;
+      A = Integer.rotateRight(A - S32[2 * i], B) ^ B;
+    }
+
+    B -= S32[1];
+    A -= S32[0];
+
+    longToByteArrayLittleEndian(A, out, outOff, 4);
+    longToByteArrayLittleEndian(B, out, outOff + 4, 4);
+  }
+
+  private void encrypt64(byte[] in, int inOff, byte[] out, int outOff) {
+    long A = byteArrayToLongLittleEndian(in, inOff, 8);
+    long B = byteArrayToLongLittleEndian(in, inOff + 8, 8);
+
+    A += S[0];
+    B += S[1];
+
+    for (int i = 1; i <= r; i++) {
+      A = Long.rotateLeft(A ^ B, (int) B) + S[2 * i];
+      B = Long.rotateLeft(B ^ A, (int) A) + S[2 * i + 1];
+    }
+
+    longToByteArrayLittleEndian(A, out, outOff, 8);
+    longToByteArrayLittleEndian(B, out, outOff + 8, 8);
+  }
+
+  private void decrypt64(byte[] in, int inOff, byte[] out, int outOff) {
+    long A = byteArrayToLongLittleEndian(in, inOff, 8);
+    long B = byteArrayToLongLittleEndian(in, inOff + 8, 8);
 
     for (int i = r; i >= 1; i--) {
-      B = rightRotation(moduloSub(B, S.get(2 * i + 1), w), A, w) ^ A;
-      A = rightRotation(moduloSub(A, S.get(2 * i),     w), B, w) ^ B;
+      B = Long.rotateRight(B - S[2 * i + 1], (int) A) ^ A;
+      A = Long.rotateRight(A - S[2 * i], (int) B) ^ B;
     }
 
-    B = moduloSub(B, S.get(1), w);
-    A = moduloSub(A, S.get(0), w);
+    B -= S[1];
+    A -= S[0];
 
-    return concatAB(A, B);
+    longToByteArrayLittleEndian(A, out, outOff, 8);
+    longToByteArrayLittleEndian(B, out, outOff + 8, 8);
+  }
+
+  private static int rotateLeft16(int x, int y) {
+    y &= 15;
+    return ((x << y) | (x >>> (16 - y))) & 0xFFFF;
+  }
+
+  private static int rotateRight16(int x, int y) {
+    y &= 15;
+    return ((x >>> y) | (x << (16 - y))) & 0xFFFF;
   }
 
 //  public byte[] encrypt(byte[] text) {
@@ -95,15 +327,4 @@ public class RC5FeistelCipher {
 //
 //    return concatAB(A, B);
 //  }
-
-  private byte[] concatAB(long A, long B) {
-    byte[] res = new byte[u * 2];
-
-    for (int i = 0; i < u; i++) {
-      res[i] = (byte) ((A >>> (8 * i)) & 0xff);
-      res[u + i] = (byte) ((B >>> (8 * i)) & 0xff);
-    }
-
-    return res;
-  }
 }
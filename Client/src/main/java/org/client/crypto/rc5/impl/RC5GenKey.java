@@ -1,9 +1,5 @@
 package org.client.crypto.rc5.impl;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import static org.client.crypto.operations.BitOperations.*;
 import static org.client.crypto.operations.MathOperations.moduloAdd;
 
@@ -22,8 +18,8 @@ public class RC5GenKey {
   private final long P64 = 0xb7e151628aed2a6bL;
   private final long Q64 = 0x9e3779b97f4a7c15L;
 
-  private final List<Long> P = List.of(P16, P32, P64);
-  private final List<Long> Q = List.of(Q16, Q32, Q64);
+  private final long[] P = {P16, P32, P64};
+  private final long[] Q = {Q16, Q32, Q64};
 
   public RC5GenKey(int w, int r, int b) {
     this.b = b;
@@ -44,35 +40,35 @@ public class RC5GenKey {
 //    return listLongToByteArrayList(S);
 //  }
 
-  public List<Long> genKey(byte[] inputKey) {
+  public long[] genKey(byte[] inputKey) {
     int u = w / 8;
     int c = (int) Math.ceil((double) Math.max(1, b) / u);
     int t = 2 * (r + 1);
 
-    List<Long> L = splitKey(inputKey, u, c);
-    List<Long> S = extendedKeys(t);
+    long[] L = splitKey(inputKey, u, c);
+    long[] S = extendedKeys(t);
     mixing(L, S, c, t);
 
     return S;
   }
 
-  private List<Long> splitKey(byte[] inputKey, int u, int c) {
+  private long[] splitKey(byte[] inputKey, int u, int c) {
     if (b == 0) {
-      return new ArrayList<>(List.of(0L));
+      return new long[1];
     }
 
-    List<Long> L = new ArrayList<>(Collections.nCopies(c, 0L));
+    long[] L = new long[c];
 
     for (int i = b - 1; i >= 0; i--) {
-      L.set(i / u, moduloAdd(
-                      leftRotation(L.get(i / u), 8, w),
-                      Byte.toUnsignedInt(inputKey[i]), w));
+      L[i / u] = moduloAdd(
+                      leftRotation(L[i / u], 8, w),
+                      Byte.toUnsignedInt(inputKey[i]), w);
     }
 
     return L;
   }
 
-  private List<Long> extendedKeys(int t) {
+  private long[] extendedKeys(int t) {
     int index = switch (w) { // Индекс магических констант соответствующей размерности
                 case 16 -> 0;
                 case 32 -> 1;
@@ -80,27 +76,27 @@ public class RC5GenKey {
                 default -> throw new IllegalStateException("Unexpected value: " + w);
     };
 
-    List<Long> S = new ArrayList<>();
+    long[] S = new long[t];
 
-    S.add(P.get(index));
+    S[0] = P[index];
     for(int i = 0; i < t - 1; i++) {
-      S.add(moduloAdd(S.get(i), Q.get(index), w));
+      S[i + 1] = moduloAdd(S[i], Q[index], w);
     }
 
     return S;
   }
 
-  private void mixing(List<Long> L, List<Long> S, int c, int t) {
+  private void mixing(long[] L, long[] S, int c, int t) {
     int iterations = 3 * Math.max(c, t);
 
     int i = 0, j = 0;
     long A = 0, B = 0;
     for (int k = 0; k < iterations; k++) {
-      A = leftRotation(moduloAdd(S.get(i), A, B, w), 3, w);
-      B = leftRotation(moduloAdd(L.get(j), A, B, w), moduloAdd(A, B, w), w);
+      A = leftRotation(moduloAdd(S[i], A, B, w), 3, w);
+      B = leftRotation(moduloAdd(L[j], A, B, w), moduloAdd(A, B, w), w);
 
-      S.set(i, A);
-      L.set(j, B);
+      S[i] = A;
+      L[j] = B;
 
       i = (i + 1) % t;
       j = (j + 1) % c;
@@ -0,0 +1,104 @@
+package org.client.crypto.rc5.impl;
+
+import jdk.incubator.vector.*;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+/// Раунды RC5 над LANES блоками сразу: слова A и B разных блоков лежат в соседних полосах
+/// вектора, сложение, XOR и циклический сдвиг на переменную величину выполняются во всех
+/// полосах одной инструкцией. Загружается, только если VectorSupport.ENABLED.
+/// Слова передаются уже разобранными по массивам A и B, поэтому наружу типы Vector API не выходят
+final class RC5VectorKernel {
+  private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+  private RC5VectorKernel() {
+  }
+
+  static int lanes(int w) {
+    return switch (w) {
+      case 16 -> SHORTS.length();
+      case 32 -> INTS.length();
+      default -> LONGS.length();
+    };
+  }
+
+  static void encrypt16(short[] A, short[] B, short[] S, int r) {
+    ShortVector a = ShortVector.fromArray(SHORTS, A, 0).add(S[0]);
+    ShortVector b = ShortVector.fromArray(SHORTS, B, 0).add(S[1]);
+
+    for (int i = 1; i <= r; i++) {
+      a = a.lanewise(XOR, b).lanewise(ROL, b).add(S[2 * i]);
+      b = b.lanewise(XOR, a).lanewise(ROL, a).add(S[2 * i + 1]);
+    }
+
+    a.intoArray(A, 0);
+    b.intoArray(B, 0);
+  }
+
+  static void decrypt16(short[] A, short[] B, short[] S, int r) {
+    ShortVector a = ShortVector.fromArray(SHORTS, A, 0);
+    ShortVector b = ShortVector.fromArray(SHORTS, B, 0);
+
+    for (int i = r; i >= 1; i--) {
+      b = b.sub(S[2 * i + 1]).lanewise(ROR, a).lanewise(XOR, a);
+      a = a.sub(S[2 * i]).lanewise(ROR, b).lanewise(XOR, b);
+    }
+
+    b.sub(S[1]).intoArray(B, 0);
+    a.sub(S[0]).intoArray(A, 0);
+  }
+
+  static void encrypt32(int[] A, int[] B, int[] S, int r) {
+    IntVector a = IntVector.fromArray(INTS, A, 0).add(S[0]);
+    IntVector b = IntVector.fromArray(INTS, B, 0).add(S[1]);
+
+    for (int i = 1; i <= r; i++) {
+      a = a.lanewise(XOR, b).lanewise(ROL, b).add(S[2 * i]);
+      b = b.lanewise(XOR, a).lanewise(ROL, a).add(S[2 * i + 1]);
+    }
+
+    a.intoArray(A, 0);
+    b.intoArray(B, 0);
+  }
+
+  static void decrypt32(int[] A, int[] B, int[] S, int r) {
+    IntVector a = IntVector.fromArray(INTS, A, 0);
+    IntVector b = IntVector.fromArray(INTS, B, 0);
+
+    for (int i = r; i >= 1; i--) {
+      b = b.sub(S[2 * i + 1]).lanewise(ROR, a).lanewise(XOR, a);
+      a = a.sub(S[2 * i]).lanewise(ROR, b).lanewise(XOR, b);
+    }
+
+    b.sub(S[1]).intoArray(B, 0);
+    a.sub(S[0]).intoArray(A, 0);
+  }
+
+  static void encrypt64(long[] A, long[] B, long[] S, int r) {
+    LongVector a = LongVector.fromArray(LONGS, A, 0).add(S[0]);
+    LongVector b = LongVector.fromArray(LONGS, B, 0).add(S[1]);
+
+    for (int i = 1; i <= r; i++) {
+      a = a.lanewise(XOR, b).lanewise(ROL, b).add(S[2 * i]);
+      b = b.lanewise(XOR, a).lanewise(ROL, a).add(S[2 * i + 1]);
+    }
+
+    a.intoArray(A, 0);
+    b.intoArray(B, 0);
+  }
+
+  static void decrypt64(long[] A, long[] B, long[] S, int r) {
+    LongVector a = LongVector.fromArray(LONGS, A, 0);
+    LongVector b = LongVector.fromArray(LONGS, B, 0);
+
+    for (int i = r; i >= 1; i--) {
+      b = b.sub(S[2 * i + 1]).lanewise(ROR, a).lanewise(XOR, a);
+      a = a.sub(S[2 * i]).lanewise(ROR, b).lanewise(XOR, b);
+    }
+
+    b.sub(S[1]).intoArray(B, 0);
+    a.sub(S[0]).intoArray(A, 0);
+  }
+}
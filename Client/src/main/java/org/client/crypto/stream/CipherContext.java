@@ -0,0 +1,130 @@
+package org.client.crypto.stream;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/// Шифрование или расшифрование данных, которые приходят частями произвольной длины.
+/// Между вызовами контекст хранит состояние цепочки (предыдущий блок шифротекста, гамму OFB,
+/// номер блока для CTR) и неполный блок. Контексты не делят изменяемого состояния, поэтому
+/// несколько потоков могут работать каждый со своим; один контекст - только из одного потока
+public class CipherContext {
+  private final StreamTransform transform;
+  private final int blockSize;
+
+  // Неполный блок, а при расшифровании ещё и последний целый, ждущий doFinal
+  private final byte[] pending;
+  private int pendingLength = 0;
+  private boolean finished = false;
+  // Результат transform.doFinal, который ещё не удалось отдать: output оказался мал
+  private byte[] last = null;
+
+  public CipherContext(StreamTransform transform) {
+    this.transform = transform;
+
+    blockSize = transform.getBlockSize();
+    pending = new byte[2 * blockSize];
+  }
+
+  /// Сколько байт самое большее вернут update(length) и следующий за ним doFinal вместе
+  public int getOutputSize(int length) {
+    return pendingLength + length + blockSize;
+  }
+
+  public byte[] update(byte[] input) {
+    return update(input, 0, input.length);
+  }
+
+  public byte[] update(byte[] input, int inputOffset, int length) {
+    byte[] output = new byte[transform.ready(pendingLength + length)];
+    update(input, inputOffset, length, output, 0);
+
+    return output;
+  }
+
+  /// Обрабатывает все целые блоки, которые уже можно отдать, и возвращает число записанных байт.
+  /// input и output могут быть одним массивом
+  public int update(byte[] input, int inputOffset, int length, byte[] output, int outputOffset) {
+    Objects.checkFromIndexSize(inputOffset, length, input.length);
+    ensureActive();
+
+    if (last != null) {
+      throw new IllegalStateException("Context is finishing, only doFinal can be repeated");
+    }
+
+    int ready = transform.ready(pendingLength + length);
+    if (output.length - outputOffset < ready) {
+      throw new IllegalArgumentException("Output is too small");
+    }
+
+    if (input == output) {
+      input = Arrays.copyOfRange(input, inputOffset, inputOffset + length);
+      inputOffset = 0;
+    }
+
+    int fromPending = Math.min(pendingLength, ready);
+    int fromInput = ready - fromPending;
+
+    System.arraycopy(pending, 0, output, outputOffset, fromPending);
+    System.arraycopy(input, inputOffset, output, outputOffset + fromPending, fromInput);
+    transform.update(output, outputOffset, ready);
+
+    System.arraycopy(pending, fromPending, pending, 0, pendingLength - fromPending);
+    pendingLength -= fromPending;
+
+    System.arraycopy(input, inputOffset + fromInput, pending, pendingLength, length - fromInput);
+    pendingLength += length - fromInput;
+
+    return ready;
+  }
+
+  public byte[] doFinal() {
+    ensureActive();
+    byte[] res = finalBytes();
+    finished = true;
+
+    return res;
+  }
+
+  /// update(input) и doFinal() одним вызовом
+  public byte[] doFinal(byte[] input) {
+    byte[] head = update(input);
+    byte[] last = doFinal();
+
+    byte[] res = Arrays.copyOf(head, head.length + last.length);
+    System.arraycopy(last, 0, res, head.length, last.length);
+
+    return res;
+  }
+
+  /// Обрабатывает остаток с набивкой и возвращает число записанных байт; после него контекст закрыт.
+  /// Если output мал, контекст остаётся открытым, и doFinal можно повторить с большим output
+  public int doFinal(byte[] output, int outputOffset) {
+    ensureActive();
+    byte[] res = finalBytes();
+
+    if (output.length - outputOffset < res.length) {
+      throw new IllegalArgumentException("Output is too small");
+    }
+
+    System.arraycopy(res, 0, output, outputOffset, res.length);
+    finished = true;
+
+    return res.length;
+  }
+
+  /// transform.doFinal продвигает цепочку, поэтому вызывается один раз: при повторе после
+  /// слишком маленького output отдаётся тот же результат
+  private byte[] finalBytes() {
+    if (last == null) {
+      last = transform.doFinal(pending, 0, pendingLength);
+    }
+
+    return last;
+  }
+
+  private void ensureActive() {
+    if (finished) {
+      throw new IllegalStateException("Context is already finished");
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.client.crypto.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/// Поток, который читает данные из in и отдаёт их преобразованными.
+/// Из in читается не больше BUFFER_SIZE за раз, поэтому память не зависит от длины потока;
+/// набивка обрабатывается, когда in закончился
+public class CipherInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream in;
+  private final StreamTransform transform;
+
+  private final byte[] buffer;
+  // [position, processed) - готовые байты, [processed, length) - ещё не обработанные
+  private int position = 0;
+  private int processed = 0;
+  private int length = 0;
+  private boolean finished = false;
+
+  public CipherInputStream(InputStream in, StreamTransform transform) {
+    this.in = in;
+    this.transform = transform;
+
+    int blockSize = transform.getBlockSize();
+    buffer = new byte[Math.max(2, BUFFER_SIZE / blockSize) * blockSize];
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+
+    return read(b, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(b[0]);
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len == 0) {
+      return 0;
+    }
+
+    while (position == processed) {
+      if (!fill()) {
+        return -1;
+      }
+    }
+
+    int n = Math.min(len, processed - position);
+    System.arraycopy(buffer, position, b, off, n);
+    position += n;
+
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return processed - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /// Дочитывает in и обрабатывает готовые блоки; false - поток закончился
+  private boolean fill() throws IOException {
+    if (finished) {
+      return false;
+    }
+
+    System.arraycopy(buffer, processed, buffer, 0, length - processed);
+    length -= processed;
+    position = processed = 0;
+
+    int n = in.read(buffer, length, buffer.length - length);
+
+    if (n == -1) {
+      byte[] last = transform.doFinal(buffer, 0, length);
+      System.arraycopy(last, 0, buffer, 0, last.length);
+
+      processed = length = last.length;
+      finished = true;
+
+      return true;
+    }
+
+    length += n;
+    processed = transform.ready(length);
+    transform.update(buffer, 0, processed);
+
+    return true;
+  }
+}
@@ -0,0 +1,92 @@
+package org.client.crypto.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/// Поток, который преобразует записанные данные и передаёт результат в out.
+/// Память ограничена одним буфером: данные копятся до BUFFER_SIZE и уходят дальше целыми блоками,
+/// остаток потока вместе с набивкой записывается в close()
+public class CipherOutputStream extends OutputStream {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final OutputStream out;
+  private final StreamTransform transform;
+
+  private final byte[] buffer;
+  private int length = 0;
+  private boolean closed = false;
+
+  public CipherOutputStream(OutputStream out, StreamTransform transform) {
+    this.out = out;
+    this.transform = transform;
+
+    int blockSize = transform.getBlockSize();
+    buffer = new byte[Math.max(2, BUFFER_SIZE / blockSize) * blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    ensureOpen();
+
+    while (len > 0) {
+      int n = Math.min(len, buffer.length - length);
+      System.arraycopy(b, off, buffer, length, n);
+
+      length += n;
+      off += n;
+      len -= n;
+
+      if (length == buffer.length) {
+        writeReady();
+      }
+    }
+  }
+
+  /// Передаёт дальше всё, что уже можно обработать; блоки, ждущие конца потока, остаются в буфере
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+
+    writeReady();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try (out) {
+      writeReady();
+      out.write(transform.doFinal(buffer, 0, length));
+    }
+  }
+
+  private void writeReady() throws IOException {
+    int ready = transform.ready(length);
+    if (ready == 0) {
+      return;
+    }
+
+    transform.update(buffer, 0, ready);
+    out.write(buffer, 0, ready);
+
+    System.arraycopy(buffer, ready, buffer, 0, length - ready);
+    length -= ready;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+}
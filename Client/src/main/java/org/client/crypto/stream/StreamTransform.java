@@ -0,0 +1,17 @@
+package org.client.crypto.stream;
+
+/// Шифрование или расшифрование потока, данные которого приходят частями.
+/// Блоки обрабатываются строго по порядку, набивка добавляется или снимается только в doFinal
+public interface StreamTransform {
+  public int getBlockSize();
+
+  /// Сколько из length накопленных байт можно обработать сейчас: целые блоки, кроме тех,
+  /// что могут оказаться последними в потоке и понадобятся doFinal
+  public int ready(int length);
+
+  /// Обрабатывает length байт (целое число блоков) на месте
+  public void update(byte[] data, int offset, int length);
+
+  /// Обрабатывает остаток потока после всех update и возвращает последние байты результата
+  public byte[] doFinal(byte[] data, int offset, int length);
+}
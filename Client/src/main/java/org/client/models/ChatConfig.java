@@ -0,0 +1,39 @@
+package org.client.models;
+
+import lombok.ToString;
+import lombok.Value;
+import lombok.With;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.enums.Algorithm;
+
+/// Содержимое <чат>_conf.json. Неизменяемое, поэтому один экземпляр читают все потоки сразу:
+/// массивы копируются и на входе, и на выходе. key равен null, пока собеседник не подтвердил чат
+/// или после отключения
+@Value
+public class ChatConfig {
+  @With
+  @ToString.Exclude
+  byte[] key;
+
+  Algorithm algorithm;
+  EncryptionMode encryptionMode;
+  PackingMode packingMode;
+  byte[] IV;
+
+  public ChatConfig(byte[] key, Algorithm algorithm, EncryptionMode encryptionMode, PackingMode packingMode, byte[] IV) {
+    this.key = key == null ? null : key.clone();
+    this.algorithm = algorithm;
+    this.encryptionMode = encryptionMode;
+    this.packingMode = packingMode;
+    this.IV = IV == null ? null : IV.clone();
+  }
+
+  public byte[] getKey() {
+    return key == null ? null : key.clone();
+  }
+
+  public byte[] getIV() {
+    return IV == null ? null : IV.clone();
+  }
+}
@@ -0,0 +1,241 @@
+package org.client.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.enums.Algorithm;
+import org.client.models.ChatConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/// Разобранные конфиги чатов в памяти. При входе load читает все <чат>_conf.json пользователя
+/// и подписывает WatchService на его директорию, так что правки файлов снаружи тоже доходят до
+/// кэша. Свои записи идут через write: временный файл в той же директории переносится на место
+/// конфига одним move, поэтому читатель видит либо старый файл, либо новый, но не наполовину
+/// записанный. Каждое изменение конфига чата передаётся в onChange
+@Slf4j
+public class ChatConfigStore {
+  public static final String CONFIG_SUFFIX = "_conf.json";
+
+  @FunctionalInterface
+  public interface ChatDirectory {
+    Path resolve(String username) throws IOException;
+  }
+
+  @FunctionalInterface
+  public interface ChangeListener {
+    void changed(String username, String chatName);
+  }
+
+  private record ChatKey(String username, String chatName) {
+  }
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Map<ChatKey, ChatConfig> configs = new ConcurrentHashMap<>();
+  private final Map<String, WatchService> watchers = new ConcurrentHashMap<>();
+
+  private final ChatDirectory directory;
+  private final ChangeListener onChange;
+
+  public ChatConfigStore(ChatDirectory directory, ChangeListener onChange) {
+    this.directory = directory;
+    this.onChange = onChange;
+  }
+
+  public Path getConfigFilePath(String username, String chatName) throws IOException {
+    return directory.resolve(username).resolve(chatName + CONFIG_SUFFIX);
+  }
+
+  public void load(String username) throws IOException {
+    Path dir = directory.resolve(username);
+
+    // Подписка раньше чтения: файл, изменённый между ними, всё равно придёт событием
+    if (!watchers.containsKey(username)) {
+      WatchService watcher = dir.getFileSystem().newWatchService();
+      dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+      if (watchers.putIfAbsent(username, watcher) == null) {
+        Thread thread = new Thread(() -> watch(username, dir, watcher), "config-watcher-" + username);
+        thread.setDaemon(true);
+        thread.start();
+      } else {
+        watcher.close();
+      }
+    }
+
+    reloadAll(username, dir);
+  }
+
+  /// null, если конфига у чата нет
+  public ChatConfig get(String username, String chatName) throws IOException {
+    ChatKey key = new ChatKey(username, chatName);
+
+    ChatConfig config = configs.get(key);
+    if (config != null) {
+      return config;
+    }
+
+    config = read(getConfigFilePath(username, chatName));
+    if (config == null) {
+      return null;
+    }
+
+    ChatConfig previous = configs.putIfAbsent(key, config);
+    return previous != null ? previous : config;
+  }
+
+  public Path write(String username, String chatName, ChatConfig config) throws IOException {
+    Path file = getConfigFilePath(username, chatName);
+
+    writeJson(mapper, file, toJson(config));
+    update(new ChatKey(username, chatName), config);
+
+    return file;
+  }
+
+  public void delete(String username, String chatName) throws IOException {
+    Files.deleteIfExists(getConfigFilePath(username, chatName));
+    update(new ChatKey(username, chatName), null);
+  }
+
+  public void close() {
+    for (WatchService watcher : watchers.values()) {
+      try {
+        watcher.close();
+      } catch (IOException e) {
+        log.error("Error closing config watcher", e);
+      }
+    }
+    watchers.clear();
+  }
+
+  /// Запись JSON целиком или никак: временный файл рядом с целевым, затем атомарный move
+  static void writeJson(ObjectMapper mapper, Path file, Object value) throws IOException {
+    Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+    try {
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+        mapper.writeValue(out, value);
+      }
+
+      try {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private void watch(String username, Path dir, WatchService watcher) {
+    while (true) {
+      WatchKey watchKey;
+      try {
+        watchKey = watcher.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+
+      for (WatchEvent<?> event : watchKey.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          reloadAll(username, dir);
+          continue;
+        }
+
+        String fileName = event.context().toString();
+        if (fileName.endsWith(CONFIG_SUFFIX)) {
+          refresh(username, chatName(fileName), dir.resolve(fileName));
+        }
+      }
+
+      if (!watchKey.reset()) {
+        watchers.remove(username, watcher);
+        return;
+      }
+    }
+  }
+
+  private void reloadAll(String username, Path dir) {
+    try (Stream<Path> paths = Files.list(dir)) {
+      paths.filter(p -> p.getFileName().toString().endsWith(CONFIG_SUFFIX))
+              .forEach(p -> refresh(username, chatName(p.getFileName().toString()), p));
+    } catch (IOException e) {
+      log.error("Error listing configs of {}", username, e);
+      return;
+    }
+
+    for (ChatKey key : configs.keySet()) {
+      if (key.username().equals(username) && !Files.exists(dir.resolve(key.chatName() + CONFIG_SUFFIX))) {
+        update(key, null);
+      }
+    }
+  }
+
+  private void refresh(String username, String chatName, Path file) {
+    ChatConfig config;
+    try {
+      config = read(file);
+    } catch (IOException e) {
+      // Файл правят снаружи не через move: запись забывается, следующий get прочитает его заново
+      log.warn("Config {} is not readable yet: {}", file, e.getMessage());
+      config = null;
+    }
+
+    update(new ChatKey(username, chatName), config);
+  }
+
+  // Событие о собственной записи приносит тот же конфиг, и шифр чата из-за него не сбрасывается
+  private void update(ChatKey key, ChatConfig config) {
+    ChatConfig previous = config == null ? configs.remove(key) : configs.put(key, config);
+
+    if (!Objects.equals(previous, config)) {
+      onChange.changed(key.username(), key.chatName());
+    }
+  }
+
+  private ChatConfig read(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+
+    Map<String, Object> data = mapper.readValue(file.toFile(), Map.class);
+
+    Object key = data.get("key");
+
+    return new ChatConfig(
+            key == null ? null : Base64.getDecoder().decode(key.toString()),
+            Algorithm.valueOf((String) data.get("algorithm")),
+            EncryptionMode.valueOf((String) data.get("encryptionMode")),
+            PackingMode.valueOf((String) data.get("packingMode")),
+            Base64.getDecoder().decode((String) data.get("iv"))
+    );
+  }
+
+  private static Map<String, Object> toJson(ChatConfig config) {
+    Map<String, Object> configData = new LinkedHashMap<>();
+
+    configData.put("key", config.getKey() == null ? null : Base64.getEncoder().encodeToString(config.getKey()));
+    configData.put("algorithm", config.getAlgorithm().name());
+    configData.put("encryptionMode", config.getEncryptionMode().name());
+    configData.put("packingMode", config.getPackingMode().name());
+    configData.put("iv", Base64.getEncoder().encodeToString(config.getIV()));
+
+    return configData;
+  }
+
+  private static String chatName(String fileName) {
+    return fileName.substring(0, fileName.length() - CONFIG_SUFFIX.length());
+  }
+}
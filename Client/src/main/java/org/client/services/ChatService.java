@@ -19,14 +19,13 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.client.crypto.SymmetricAlgorithm;
 import org.client.crypto.async.CancellableCompletableFuture;
-import org.client.crypto.enums.EncryptionMode;
-import org.client.crypto.enums.PackingMode;
 import org.client.crypto.loki97.LOKI97;
 import org.client.crypto.rc5.RC5;
 import org.client.dto.ChatFileMessage;
 import org.client.dto.ChatMessage;
 import org.client.enums.Algorithm;
 import org.client.enums.MessageType;
+import org.client.models.ChatConfig;
 import org.client.models.Message;
 import org.springframework.stereotype.Service;
 
@@ -37,13 +36,13 @@ import java.nio.file.*;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import static java.lang.Thread.sleep;
-import static org.client.crypto.loki97.boxes.Sboxes.initS1;
-import static org.client.crypto.loki97.boxes.Sboxes.initS2;
 import static org.client.services.FileService.getFileDirectoryPath;
-import static org.client.services.KeyService.getConfigFilePath;
+import static org.client.services.KeyService.deleteConfig;
+import static org.client.services.KeyService.getChatConfig;
 
 @Getter
 @Slf4j
@@ -53,10 +52,15 @@ public class ChatService {
   private final ObjectMapper mapper = new ObjectMapper();
 
   private final FileService fileService = new FileService();
-  private final Map<UUID, Integer> filesProgress = new HashMap<>();
+  private final Map<UUID, Integer> filesProgress = new ConcurrentHashMap<>();
 
   private static final Object FILE_LOCK = new Object();
 
+  // Общий для всех экземпляров сервиса: ключ в конфиге меняет KeyService, и сброс должен
+  // доходить до каждого, кто шифрует сообщения этого чата
+  private static final CipherCache ALGORITHMS =
+          new CipherCache(CipherCache.DEFAULT_CAPACITY, ChatService::loadAlgorithm);
+
   public static Path getChatDirectoryPath(String username) throws IOException {
     Path userChatDir = Paths.get(CHAT_DIR, username);
 
@@ -84,8 +88,7 @@ public class ChatService {
     return chatFile;
   }
 
-  public Path openChat(String username, String chatName, ListView<Message> chatListView,
-                       Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
+  public Path openChat(String username, String chatName, ListView<Message> chatListView) throws IOException {
     Path chatFile = getChatFilePath(username, chatName);
 
     try {
@@ -97,7 +100,7 @@ public class ChatService {
           lines = Files.readAllLines(chatFile);
         }
 
-        getAlgorithm(username, chatName, encryptionAlgorithms);
+        getAlgorithm(username, chatName);
 
         ObservableList<Message> messages = FXCollections.observableArrayList();
 
@@ -346,12 +349,11 @@ public class ChatService {
   }
 
   public void interlocutorWriteMessage(String username, String chatName, byte[] message,
-                                       ListView<Message> chatListView, Path curOpenChat,
-                                       Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
+                                       ListView<Message> chatListView, Path curOpenChat) throws IOException {
 
     Path chatFile = getChatFilePath(username, chatName);
 
-    SymmetricAlgorithm algorithm = getAlgorithm(username, chatName, encryptionAlgorithms);
+    SymmetricAlgorithm algorithm = getAlgorithm(username, chatName);
 
     CancellableCompletableFuture<byte[]> decryptFuture = algorithm.decryptAsync(message);
 
@@ -370,12 +372,11 @@ public class ChatService {
   }
 
   public CompletableFuture<Void> interlocutorWriteMessageAsync(String username, String chatName, byte[] message,
-                                                               ListView<Message> chatListView, Path curOpenChat,
-                                                               Map<String, SymmetricAlgorithm> encryptionAlgorithms) {
+                                                               ListView<Message> chatListView, Path curOpenChat) {
     return CompletableFuture.runAsync(() -> {
               try {
                 interlocutorWriteMessage(username, chatName, message,
-                        chatListView, curOpenChat, encryptionAlgorithms);
+                        chatListView, curOpenChat);
               } catch (IOException e) {
                 log.error("Interlocutor write message error {}", e.getMessage());
               }
@@ -383,12 +384,12 @@ public class ChatService {
   }
 
   public void interlocutorParseAndWriteMessage(String username, String jsonMessage, ListView<Message> chatListView,
-                                               Path curOpenChat, Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
+                                               Path curOpenChat) throws IOException {
     ChatMessage chatMessage = mapper.readValue(jsonMessage, ChatMessage.class);
 
     interlocutorWriteMessageAsync(
             username, chatMessage.getSender(), chatMessage.getMessage(),
-            chatListView, curOpenChat, encryptionAlgorithms);
+            chatListView, curOpenChat);
   }
 
   public void meWriteFile(Path chatFile, ListView<Message> chatListView, Path curOpenChat,
@@ -404,11 +405,11 @@ public class ChatService {
   public void interlocutorWriteFileMessage(String username, String chatName, UUID fileId,
                                            byte[] fileName, byte[] fileContent, int chunkNumber,
                                            int totalChunks, ListView<Message> chatListView,
-                                           Path curOpenChat, Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
+                                           Path curOpenChat) throws IOException {
 
     Path chatFile = getChatFilePath(username, chatName);
 
-    SymmetricAlgorithm algorithm = getAlgorithm(username, chatName, encryptionAlgorithms);
+    SymmetricAlgorithm algorithm = getAlgorithm(username, chatName);
 
     CancellableCompletableFuture<byte[]> decryptFuture = algorithm.decryptAsync(fileName);
 
@@ -464,13 +465,12 @@ public class ChatService {
 
   public CompletableFuture<Void> interlocutorWriteFileMessageAsync(String username, String chatName, UUID fileId,
                                            byte[] fileName, byte[] fileContent, int chunkNumber, int totalChunks,
-                                           ListView<Message> chatListView, Path curOpenChat,
-                                           Map<String, SymmetricAlgorithm> encryptionAlgorithms) {
+                                           ListView<Message> chatListView, Path curOpenChat) {
 
     return CompletableFuture.runAsync(() -> {
       try {
         interlocutorWriteFileMessage(username, chatName, fileId, fileName, fileContent,
-                chunkNumber, totalChunks, chatListView, curOpenChat, encryptionAlgorithms);
+                chunkNumber, totalChunks, chatListView, curOpenChat);
       } catch (IOException e) {
         log.error("Interlocutor write file error {}", e.getMessage());
       }
@@ -478,58 +478,51 @@ public class ChatService {
   }
 
   public void interlocutorParseAndWriteFileMessage(String username, String jsonMessage, ListView<Message> chatListView,
-                                                   Path curOpenChat, Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
+                                                   Path curOpenChat) throws IOException {
     ChatFileMessage chatMessage = mapper.readValue(jsonMessage, ChatFileMessage.class);
 
     interlocutorWriteFileMessageAsync(
             username, chatMessage.getSender(), chatMessage.getFileId(), chatMessage.getFileName(),
             chatMessage.getFileContent(), chatMessage.getChunkNumber(), chatMessage.getTotalChunks(),
-            chatListView, curOpenChat, encryptionAlgorithms);
+            chatListView, curOpenChat);
   }
 
-  private SymmetricAlgorithm getAlgorithm(String username, String chatName,
-                                          Map<String, SymmetricAlgorithm> encryptionAlgorithms) throws IOException {
-    SymmetricAlgorithm algorithm;
-    if(!encryptionAlgorithms.containsKey(chatName)) {
-      Map<String, Object> data = mapper.readValue(getConfigFilePath(username, chatName).toFile(), Map.class);
+  public SymmetricAlgorithm getAlgorithm(String username, String chatName) throws IOException {
+    return ALGORITHMS.get(username, chatName);
+  }
 
-      if (data.get("key") == null) return null;
+  /// Сбрасывает шифр чата; вызывается при каждой записи ключа в конфиг и при удалении чата
+  public static void invalidateAlgorithm(String username, String chatName) {
+    ALGORITHMS.invalidate(username, chatName);
+    log.debug("Сброшен шифр чата {}: {}", chatName, ALGORITHMS);
+  }
 
-      byte[] key = Base64.getDecoder().decode(data.get("key").toString());
-      Algorithm encryptionAlgorithm = Algorithm.valueOf((String) data.get("algorithm"));
-      EncryptionMode encryptionMode = EncryptionMode.valueOf((String) data.get("encryptionMode"));
-      PackingMode packingMode = PackingMode.valueOf((String) data.get("packingMode"));
-      byte[] initVector = Base64.getDecoder().decode(data.get("iv").toString());
+  private static SymmetricAlgorithm loadAlgorithm(String username, String chatName) throws IOException {
+    ChatConfig config = getChatConfig(username, chatName);
 
-      if (encryptionAlgorithm == Algorithm.RC5) {
-        algorithm = new SymmetricAlgorithm(
-                new RC5(key, 16), encryptionMode, packingMode, initVector);
-      } else {
-        algorithm = new SymmetricAlgorithm(
-                new LOKI97(key, initS1(), initS2()), encryptionMode, packingMode, initVector);
-      }
+    if (config == null || config.getKey() == null) return null;
 
-      encryptionAlgorithms.put(chatName, algorithm);
+    if (config.getAlgorithm() == Algorithm.RC5) {
+      return new SymmetricAlgorithm(
+              new RC5(config.getKey(), 16), config.getEncryptionMode(), config.getPackingMode(), config.getIV());
     } else {
-      algorithm = encryptionAlgorithms.get(chatName);
+      return new SymmetricAlgorithm(
+              new LOKI97(config.getKey()), config.getEncryptionMode(), config.getPackingMode(), config.getIV());
     }
-
-    return algorithm;
   }
 
   public void deleteChat(String username, String recipient) {
+    invalidateAlgorithm(username, recipient);
+
     try {
       Path chatFile = getChatFilePath(username, recipient);
-      Path configFile = getConfigFilePath(username, recipient);
       Path filesDir = getFileDirectoryPath(username, recipient);
 
       if (Files.exists(chatFile)) {
         Files.delete(chatFile);
       }
 
-      if (Files.exists(configFile)) {
-        Files.delete(configFile);
-      }
+      deleteConfig(username, recipient);
 
       if (Files.exists(filesDir)) {
         Files.walk(filesDir)
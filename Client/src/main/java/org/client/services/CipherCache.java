@@ -0,0 +1,152 @@
+package org.client.services;
+
+import org.client.crypto.SymmetricAlgorithm;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Готовые SymmetricAlgorithm по паре (пользователь, чат). Чтение _conf.json и расписание ключей
+/// выполняются один раз: первый поток кладёт в кэш незавершённый CompletableFuture и загружает
+/// шифр, остальные ждут этот же future. Порядок записей - порядок обращений, поэтому при
+/// переполнении вытесняется чат, к которому дольше всех не обращались.
+/// Когда ключ чата меняется, запись нужно сбросить через invalidate
+public class CipherCache {
+  public static final int DEFAULT_CAPACITY = 256;
+
+  @FunctionalInterface
+  public interface Loader {
+    /// null, если ключа у чата нет; такой ответ в кэше не остаётся
+    SymmetricAlgorithm load(String username, String chatName) throws IOException;
+  }
+
+  private record ChatKey(String username, String chatName) {
+  }
+
+  private final int capacity;
+  private final Loader loader;
+  private final Map<ChatKey, CompletableFuture<SymmetricAlgorithm>> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CipherCache(int capacity, Loader loader) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+
+    this.capacity = capacity;
+    this.loader = loader;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<ChatKey, CompletableFuture<SymmetricAlgorithm>> eldest) {
+        if (size() > CipherCache.this.capacity) {
+          evictions.increment();
+          return true;
+        }
+
+        return false;
+      }
+    };
+  }
+
+  public SymmetricAlgorithm get(String username, String chatName) throws IOException {
+    ChatKey key = new ChatKey(username, chatName);
+
+    CompletableFuture<SymmetricAlgorithm> future;
+    boolean loading = false;
+    synchronized (entries) {
+      future = entries.get(key);
+      if (future == null) {
+        future = new CompletableFuture<>();
+        entries.put(key, future);
+        loading = true;
+      }
+    }
+
+    if (!loading) {
+      hits.increment();
+      return await(future);
+    }
+
+    misses.increment();
+
+    SymmetricAlgorithm algorithm;
+    try {
+      algorithm = loader.load(username, chatName);
+    } catch (IOException | RuntimeException e) {
+      remove(key, future);
+      future.completeExceptionally(e);
+      throw e;
+    }
+
+    if (algorithm == null) {
+      remove(key, future);
+    }
+    future.complete(algorithm);
+
+    return algorithm;
+  }
+
+  public void invalidate(String username, String chatName) {
+    synchronized (entries) {
+      entries.remove(new ChatKey(username, chatName));
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "CipherCache{size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() +
+            ", evictions=" + getEvictions() + "}";
+  }
+
+  // Запись могли сбросить и загрузить заново, пока шла загрузка, поэтому удаляется только свой future
+  private void remove(ChatKey key, CompletableFuture<SymmetricAlgorithm> future) {
+    synchronized (entries) {
+      entries.remove(key, future);
+    }
+  }
+
+  private static SymmetricAlgorithm await(CompletableFuture<SymmetricAlgorithm> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException cause) {
+        throw new IOException(cause);
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      throw e;
+    }
+  }
+}
@@ -6,13 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.client.crypto.enums.EncryptionMode;
 import org.client.crypto.enums.PackingMode;
 import org.client.enums.Algorithm;
+import org.client.models.ChatConfig;
 import org.client.models.ChatSettings;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
@@ -28,6 +29,11 @@ import static org.client.services.ChatService.getChatDirectoryPath;
 public class KeyService {
   private final ObjectMapper mapper = new ObjectMapper();
 
+  // Общий для всех экземпляров сервиса, как и кэш шифров в ChatService: любое изменение
+  // конфига чата сбрасывает его шифр
+  private static final ChatConfigStore CONFIGS =
+          new ChatConfigStore(ChatService::getChatDirectoryPath, ChatService::invalidateAlgorithm);
+
   public Path getPrivateKeyFilePath(String username, String chatName) throws IOException {
     Path userChatDir = getChatDirectoryPath(username);
 
@@ -35,9 +41,25 @@ public class KeyService {
   }
 
   public static Path getConfigFilePath(String username, String chatName) throws IOException {
-    Path userChatDir = getChatDirectoryPath(username);
+    return CONFIGS.getConfigFilePath(username, chatName);
+  }
+
+  /// Конфиг чата из памяти; null, если чата нет
+  public static ChatConfig getChatConfig(String username, String chatName) throws IOException {
+    return CONFIGS.get(username, chatName);
+  }
+
+  public static void deleteConfig(String username, String chatName) throws IOException {
+    CONFIGS.delete(username, chatName);
+  }
+
+  /// Вызывается при входе: читает конфиги всех чатов пользователя и следит за их изменениями
+  public void loadConfigs(String username) throws IOException {
+    CONFIGS.load(username);
+  }
 
-    return userChatDir.resolve(chatName + "_conf.json");
+  public void stopWatchingConfigs() {
+    CONFIGS.close();
   }
 
   public static Path getInvitationFilePath(String username, String chatName) throws IOException {
@@ -68,25 +90,40 @@ public class KeyService {
   }
 
   public ChatSettings readChatSettings(String username, String chatName) throws IOException {
-    return readChatSettings(getConfigFilePath(username, chatName), chatName);
+    ChatConfig config = getChatConfig(username, chatName);
+
+    if (config == null) {
+      throw new NoSuchFileException(getConfigFilePath(username, chatName).toString());
+    }
+
+    return new ChatSettings(
+            chatName,
+            config.getAlgorithm(),
+            config.getEncryptionMode(),
+            config.getPackingMode(),
+            config.getIV()
+    );
   }
 
   public ChatSettings settingsWithNewKey(String username, String chatName, byte[] newKey) {
-    Path file;
-    Map<String, Object> config;
+    ChatConfig config;
     try {
-      file = getConfigFilePath(username, chatName);
-      config = mapper.readValue(file.toFile(), Map.class);
+      config = getChatConfig(username, chatName);
     } catch (IOException e) {
       log.error("Error reading config file", e);
       return null;
     }
 
+    if (config == null) {
+      log.error("config file does not exist");
+      return null;
+    }
+
     return new ChatSettings(
             chatName,
-            Algorithm.valueOf((String) config.get("algorithm")),
-            EncryptionMode.valueOf((String) config.get("encryptionMode")),
-            PackingMode.valueOf((String) config.get("packingMode")),
+            config.getAlgorithm(),
+            config.getEncryptionMode(),
+            config.getPackingMode(),
             newKey
     );
   }
@@ -107,24 +144,15 @@ public class KeyService {
   }
 
   public Path writeConfig(String username, String chatName, byte[] key, ChatSettings settings) throws IOException {
-    Path file = getConfigFilePath(username, chatName);
-
-    Map<String, Object> configData = new LinkedHashMap<>();
-
-    String base64Key = Base64.getEncoder().encodeToString(Arrays.copyOfRange(key, 0, 32));
-    String base64IV = Base64.getEncoder().encodeToString(settings.getIV());
-
-    configData.put("key", base64Key);
-    configData.put("algorithm", settings.getAlgorithm().name());
-    configData.put("encryptionMode", settings.getEncryptionMode().name());
-    configData.put("packingMode", settings.getPackingMode().name());
-    configData.put("iv", base64IV);
-
-    try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE)) {
-      mapper.writeValue(out, configData);
-    }
+    ChatConfig config = new ChatConfig(
+            Arrays.copyOfRange(key, 0, 32),
+            settings.getAlgorithm(),
+            settings.getEncryptionMode(),
+            settings.getPackingMode(),
+            settings.getIV()
+    );
 
-    return file;
+    return CONFIGS.write(username, chatName, config);
   }
 
   public void writeInvitation(String username, String sender, BigInteger key, ChatSettings settings) throws IOException {
@@ -140,56 +168,34 @@ public class KeyService {
     configData.put("packingMode", settings.getPackingMode().name());
     configData.put("iv", base64IV);
 
-    try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE)) {
-      mapper.writeValue(out, configData);
-    }
+    ChatConfigStore.writeJson(mapper, file, configData);
   }
 
   public Path updateKeyInConfig(String username, String chatName, byte[] newKey) throws IOException {
-    Path configFile = getConfigFilePath(username, chatName);
+    ChatConfig config = getChatConfig(username, chatName);
 
-    if (!Files.exists(configFile)) {
+    if (config == null) {
       return null;
     }
 
-    Map<String, Object> configData = mapper.readValue(configFile.toFile(), Map.class);
-
-    String base64NewKey = null;
-    if (newKey != null) {
-      base64NewKey = Base64.getEncoder().encodeToString(Arrays.copyOfRange(newKey, 0, 32));
-    }
-
-    configData.put("key", base64NewKey);
-
-    try (OutputStream out = Files.newOutputStream(configFile,
-            StandardOpenOption.TRUNCATE_EXISTING,
-            StandardOpenOption.WRITE)) {
-      mapper.writeValue(out, configData);
-    }
-
-    return configFile;
+    return CONFIGS.write(username, chatName,
+            config.withKey(newKey == null ? null : Arrays.copyOfRange(newKey, 0, 32)));
   }
 
   public boolean isKeyNull(String username, String chatName) {
-    Path configFile;
+    ChatConfig config;
     try {
-      configFile = getConfigFilePath(username, chatName);
+      config = getChatConfig(username, chatName);
     } catch (IOException e) {
       log.error("Error reading config file", e);
       return true;
     }
 
-    if (!Files.exists(configFile)) {
+    if (config == null) {
       log.error("config file does not exist");
-    }
-
-    Map<String, Object> configData = null;
-    try {
-      configData = mapper.readValue(configFile.toFile(), Map.class);
-    } catch (IOException e) {
-      log.error("Error mapping config file", e);
       return true;
     }
-    return configData.get("key") == null;
+
+    return config.getKey() == null;
   }
 }
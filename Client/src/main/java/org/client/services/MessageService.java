@@ -8,6 +8,7 @@ import javafx.scene.control.ListView;
 import lombok.extern.log4j.Log4j2;
 import org.client.crypto.SymmetricAlgorithm;
 import org.client.crypto.async.CancellableCompletableFuture;
+import org.client.crypto.async.EncryptionProgress;
 import org.client.dto.FileMessageRequest;
 import org.client.dto.MessageRequest;
 import org.client.models.Message;
@@ -17,17 +18,17 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.Thread.sleep;
 import static org.client.services.CommonService.showError;
@@ -38,32 +39,29 @@ public class MessageService {
   private static final int CHUNK_SIZE = 64 * 1024;
   private final FileService fileService = new FileService();
 
-  public CompletableFuture<Void> sendFileAsync(String username, String recipient, File file,
-                                               Map<String, SymmetricAlgorithm> symmetricEncryption, String authToken,
+  public CompletableFuture<Void> sendFileAsync(String username, String recipient, File file, String authToken,
                                                Path chatFile, ListView<Message> chatListView, Label messageLabel,
                                                ChatService chatService) {
     return CompletableFuture.runAsync(() ->
-            sendFile(username, recipient, file, symmetricEncryption, authToken,
+            sendFile(username, recipient, file, authToken,
                     chatFile, chatListView, messageLabel, chatService));
   }
 
-  public CompletableFuture<Void> sendAsync(String username, String recipient, String message,
-                                           Map<String, SymmetricAlgorithm> symmetricEncryption, String authToken,
+  public CompletableFuture<Void> sendAsync(String username, String recipient, String message, String authToken,
                                            Path chatFile, ListView<Message> chatListView, Label messageLabel,
                                            ChatService chatService) {
     return CompletableFuture.runAsync(() ->
-            sendMessage(username, recipient, message, symmetricEncryption, authToken,
+            sendMessage(username, recipient, message, authToken,
                         chatFile, chatListView, messageLabel, chatService));
   }
 
-  public void sendMessage(String username, String recipient, String message,
-                   Map<String, SymmetricAlgorithm> symmetricEncryption, String authToken, Path chatFile,
+  public void sendMessage(String username, String recipient, String message, String authToken, Path chatFile,
                    ListView<Message> chatListView, Label messageLabel, ChatService chatService) {
 
     byte[] encryptedMessage;
     try {
-      encryptedMessage = takeEncryptedMessage(recipient, message.getBytes(), symmetricEncryption);
-    } catch (InterruptedException | ExecutionException e) {
+      encryptedMessage = takeEncryptedMessage(username, recipient, message.getBytes(), chatService);
+    } catch (IOException | InterruptedException | ExecutionException e) {
       log.error("Encryption thread interrupted", e);
       showError(messageLabel, "Ошибка шифрования");
       return;
@@ -94,43 +92,41 @@ public class MessageService {
     }
   }
 
-  public void sendFile(String username, String recipient, File file,
-                       Map<String, SymmetricAlgorithm> symmetricEncryption, String authToken, Path chatFile,
+  public void sendFile(String username, String recipient, File file, String authToken, Path chatFile,
                        ListView<Message> chatListView, Label messageLabel, ChatService chatService) {
 
     String fileName = file.getName();
     IntegerProperty progress = new SimpleIntegerProperty(0);
 
+    SymmetricAlgorithm algorithm;
     byte[] encryptedName;
     try {
-      encryptedName = takeEncryptedMessage(recipient, fileName.getBytes(), symmetricEncryption);
-    } catch (InterruptedException | ExecutionException e) {
+      algorithm = chatService.getAlgorithm(username, recipient);
+      encryptedName = algorithm.encryptAsync(fileName.getBytes()).get();
+    } catch (IOException | InterruptedException | ExecutionException e) {
       log.error("Encryption thread interrupted", e);
       showError(messageLabel, "Ошибка шифрования названия файла");
       return;
     }
 
     UUID id = UUID.randomUUID();
-    String encryptedFileName;
-    try {
-      encryptedFileName = fileService.getFileDirectoryPath(username, recipient).toString() + "/" + id;
-    } catch (IOException e) {
-      log.error("Encrypted file name error", e);
-      return;
-    }
 
-    File encryptedFile = new File(encryptedFileName);
+    // Файл шифруется по ходу отправки: каждая часть читается из шифрующего потока и сразу
+    // уходит на сервер, без промежуточного зашифрованного файла
+    AtomicBoolean cancelled = new AtomicBoolean(false);
+    EncryptionProgress sendProgress = new EncryptionProgress();
 
-    CancellableCompletableFuture<Void> encryptFuture =
-            symmetricEncryption.get(recipient).encryptAsync(file.toString(), encryptedFileName);
+    CancellableCompletableFuture<Void> sendFuture = CancellableCompletableFuture.runAsync(() ->
+            sendChunks(username, recipient, file, algorithm, encryptedName, id, authToken,
+                       messageLabel, chatService, cancelled, sendProgress), cancelled, sendProgress);
 
     Path filePath = fileService.saveFile(username, recipient, file);
     if (filePath != null) {
       try {
         if (fileService.isImage(fileName)) {
-          chatService.meWriteImage(chatFile, chatListView, chatFile, filePath, progress, encryptFuture, id);
+          chatService.meWriteImage(chatFile, chatListView, chatFile, filePath, progress, sendFuture, id);
         } else {
-          chatService.meWriteFile(chatFile, chatListView, chatFile, filePath, progress, encryptFuture, id);
+          chatService.meWriteFile(chatFile, chatListView, chatFile, filePath, progress, sendFuture, id);
         }
       } catch (IOException e) {
         log.error("File writing error", e);
@@ -139,59 +135,59 @@ public class MessageService {
     }
 
     try {
-      while (!encryptFuture.isDone()) {
+      while (!sendFuture.isDone()) {
         sleep(100);
-        progress.set((int) encryptFuture.getProgress());
+        progress.set((int) sendFuture.getProgress());
       }
     } catch (InterruptedException e) {
       log.error("Encryption thread interrupted", e);
     }
 
     try {
-      encryptFuture.get();
+      sendFuture.get();
     } catch (InterruptedException | ExecutionException e) {
-      log.error("Encryption thread interrupted", e);
-      showError(messageLabel, "Ошибка шифрования файла");
-      return;
+      log.error("File sending error", e);
+      showError(messageLabel, "Ошибка отправки файла");
     }
+  }
 
+  private void sendChunks(String username, String recipient, File file, SymmetricAlgorithm algorithm,
+                          byte[] encryptedName, UUID id, String authToken, Label messageLabel,
+                          ChatService chatService, AtomicBoolean cancelled, EncryptionProgress progress) {
     byte[] buffer = new byte[CHUNK_SIZE];
-    progress.set(0);
 
-    try (InputStream fileInputStream = new FileInputStream(encryptedFile)) {
+    long encryptedLength = algorithm.getEncryptedLength(file.length());
+    int totalChunks = (int) Math.ceil((double) encryptedLength / CHUNK_SIZE);
+    progress.setTotal(totalChunks);
+
+    // Любой сбой завершает sendFuture с ошибкой: иначе недоотправленный файл выглядел бы доставленным
+    int chunkNumber = 1;
+    try (InputStream encryptedStream = algorithm.encryptStream(new FileInputStream(file))) {
       int bytesRead;
-      int chunkNumber = 1;
-      int totalChunks = (int) Math.ceil((double) encryptedFile.length() / CHUNK_SIZE);
 
-      while ((bytesRead = fileInputStream.read(buffer)) != -1) {
+      while ((bytesRead = encryptedStream.readNBytes(buffer, 0, CHUNK_SIZE)) > 0) {
+        if (cancelled.get()) {
+          throw new RuntimeException("Stopped");
+        }
+
         String jsonRequest = chunkRequest(username, recipient, buffer, encryptedName, bytesRead,
                                           chatService, chunkNumber, totalChunks, id);
         if (jsonRequest == null) {
-          return;
+          throw new IllegalStateException("Chunk " + chunkNumber + " of " + totalChunks + " could not be serialized");
         }
 
         int statusCode = send(jsonRequest, authToken, messageLabel, "send-file-message");
 
         if (statusCode != 200) {
-          showError(messageLabel, "Ошибка отправки файла (часть " + (chunkNumber) + ")");
-          return;
+          throw new IllegalStateException(
+                  "Chunk " + chunkNumber + " of " + totalChunks + " was rejected with status " + statusCode);
         }
 
         chunkNumber++;
-        if (totalChunks != 0) {
-          progress.set((int) (((double) chunkNumber / totalChunks) * 100));
-        }
+        progress.increment();
       }
     } catch (IOException e) {
-      log.error("File reading error", e);
-      showError(messageLabel, "Ошибка чтения файла");
-      return;
-    }
-
-    try {
-      Files.delete(encryptedFile.toPath());
-    } catch (IOException e) {
-      log.error("File deletion error", e);
+      throw new UncheckedIOException("File reading error at chunk " + chunkNumber + " of " + totalChunks, e);
     }
   }
 
@@ -217,10 +213,10 @@ public class MessageService {
     return 0;
   }
 
-  private byte[] takeEncryptedMessage(String recipient, byte[] message,
-                                     Map<String, SymmetricAlgorithm> symmetricEncryption) throws ExecutionException, InterruptedException {
+  private byte[] takeEncryptedMessage(String username, String recipient, byte[] message,
+                                      ChatService chatService) throws IOException, ExecutionException, InterruptedException {
     CancellableCompletableFuture<byte[]> encryptFuture =
-            symmetricEncryption.get(recipient).encryptAsync(message);
+            chatService.getAlgorithm(username, recipient).encryptAsync(message);
 
     return encryptFuture.get();
   }
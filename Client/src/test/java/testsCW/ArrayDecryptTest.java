@@ -0,0 +1,74 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.des.DES;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.loki97.LOKI97;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ArrayDecryptTest {
+  @Test(dataProvider = "modesAndPackings")
+  void testDecryptIntoPreallocatedOutput(EncryptionMode mode, PackingMode packing) {
+    for (int length : new int[] { 16, 21, 70_000 }) {
+      // SETUP
+      Random random = new Random(length);
+      byte[] message = new byte[length];
+      random.nextBytes(message);
+
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new LOKI97(new byte[16]), mode, packing, new byte[16]);
+      byte[] cipher = algorithm.encrypt(message);
+      byte[] output = new byte[cipher.length];
+
+      // EXECUTION
+      int actualLength = algorithm.decrypt(cipher, output);
+
+      // ASSERTION
+      Assert.assertEquals(Arrays.copyOf(output, actualLength), message);
+      Assert.assertEquals(algorithm.decrypt(cipher), message);
+    }
+  }
+
+  @Test
+  void testDecryptWithoutPackingKeepsOutputArray() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CTR, PackingMode.NO);
+    byte[] message = new byte[64];
+    new Random(1).nextBytes(message);
+
+    // EXECUTION
+    byte[] actualMessage = algorithm.decrypt(algorithm.encrypt(message));
+
+    // ASSERTION
+    Assert.assertEquals(actualMessage, message);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testDecryptIntoShortOutput() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CBC, PackingMode.PKCS7);
+
+    // EXECUTION
+    algorithm.decrypt(new byte[32], new byte[24]);
+  }
+
+  @DataProvider(name = "modesAndPackings")
+  Object[][] modesAndPackingsProvider() {
+    PackingMode[] packings = { PackingMode.PKCS7, PackingMode.ANSIX923, PackingMode.ISO10126 };
+    EncryptionMode[] modes = EncryptionMode.values();
+
+    Object[][] res = new Object[modes.length * packings.length][];
+    for (int i = 0; i < modes.length; i++) {
+      for (int j = 0; j < packings.length; j++) {
+        res[i * packings.length + j] = new Object[] { modes[i], packings[j] };
+      }
+    }
+
+    return res;
+  }
+}
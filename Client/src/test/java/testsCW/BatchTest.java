@@ -0,0 +1,81 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DES;
+import org.client.crypto.enums.EncryptionMode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.client.crypto.enums.PackingMode.PKCS7;
+import static testsCW.CipherFixtures.randomBytes;
+
+public class BatchTest {
+  private static final int MESSAGE_COUNT = 37;
+
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testEncryptBatchMatchesSingleStream(SymmetricEncryption cipher, EncryptionMode mode) {
+    // SETUP
+    Random random = new Random(mode.ordinal());
+    List<byte[]> IVs = new ArrayList<>();
+    List<byte[]> messages = new ArrayList<>();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      IVs.add(randomBytes(random, cipher.getBlockSize()));
+      messages.add(randomBytes(random, 1 + random.nextInt(i % 5 == 0 ? 20_000 : 300)));
+    }
+
+    // EXECUTION
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, IVs.getFirst());
+    List<byte[]> actualCiphers = algorithm.encryptBatch(IVs, messages);
+    List<byte[]> actualMessages = algorithm.decryptBatch(IVs, actualCiphers);
+
+    // ASSERTION
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      byte[] expectedCipher = new SymmetricAlgorithm(cipher, mode, PKCS7, IVs.get(i)).encrypt(messages.get(i));
+
+      Assert.assertEquals(actualCiphers.get(i), expectedCipher);
+      Assert.assertEquals(actualMessages.get(i), messages.get(i));
+    }
+  }
+
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testDecryptBatchWithRaggedInputs(SymmetricEncryption cipher, EncryptionMode mode) {
+    // SETUP
+    Random random = new Random(mode.ordinal());
+    List<byte[]> IVs = new ArrayList<>();
+    List<byte[]> inputs = new ArrayList<>();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      IVs.add(randomBytes(random, cipher.getBlockSize()));
+      byte[] encrypted = new SymmetricAlgorithm(cipher, mode, PKCS7, IVs.get(i))
+              .encrypt(randomBytes(random, 1 + random.nextInt(300)));
+      // У нечётных сообщений за последним целым блоком идёт хвост короче блока
+      int tail = i % 2 == 0 ? 0 : 1 + random.nextInt(cipher.getBlockSize() - 1);
+      inputs.add(Arrays.copyOf(encrypted, encrypted.length + tail));
+    }
+
+    // EXECUTION
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, IVs.getFirst());
+    List<byte[]> actualOutputs = algorithm.decryptBatch(IVs, inputs);
+
+    // ASSERTION
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      byte[] expectedOutput = new SymmetricAlgorithm(cipher, mode, PKCS7, IVs.get(i)).decrypt(inputs.get(i));
+
+      Assert.assertEquals(actualOutputs.get(i), expectedOutput);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testEncryptBatchWithMissingIV() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CBC, PKCS7);
+
+    // EXECUTION
+    algorithm.encryptBatch(List.of(new byte[8]), List.of(new byte[10], new byte[20]));
+  }
+}
@@ -0,0 +1,81 @@
+package testsCW;
+
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DEAL;
+import org.client.crypto.des.DES;
+import org.client.crypto.loki97.LOKI97;
+import org.client.crypto.rc5.RC5;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.client.crypto.loki97.boxes.Sboxes.initS1;
+import static org.client.crypto.loki97.boxes.Sboxes.initS2;
+
+public class BlockApiTest {
+  private static final int OFFSET = 3;
+
+  @Test(dataProvider = "ciphers")
+  void testEncryptBlockWithOffset(SymmetricEncryption cipher) {
+    // SETUP
+    int blockSize = cipher.getBlockSize();
+    byte[] input = new byte[blockSize * 2 + OFFSET];
+    new Random(blockSize).nextBytes(input);
+    byte[] block = Arrays.copyOfRange(input, OFFSET, OFFSET + blockSize);
+    byte[] output = new byte[input.length];
+
+    // EXECUTION
+    cipher.encryptBlock(input, OFFSET, output, blockSize);
+
+    // ASSERTION
+    Assert.assertEquals(Arrays.copyOfRange(output, blockSize, 2 * blockSize), cipher.encryption(block));
+  }
+
+  @Test(dataProvider = "ciphers")
+  void testDecryptBlockInPlace(SymmetricEncryption cipher) {
+    // SETUP
+    int blockSize = cipher.getBlockSize();
+    byte[] input = new byte[blockSize + OFFSET];
+    new Random(blockSize).nextBytes(input);
+    byte[] expectedOutput = cipher.decryption(Arrays.copyOfRange(input, OFFSET, OFFSET + blockSize));
+
+    // EXECUTION
+    cipher.decryptBlock(input, OFFSET, input, OFFSET);
+
+    // ASSERTION
+    Assert.assertEquals(Arrays.copyOfRange(input, OFFSET, OFFSET + blockSize), expectedOutput);
+  }
+
+  @Test(dataProvider = "ciphers")
+  void testBlockCycleInPlace(SymmetricEncryption cipher) {
+    // SETUP
+    byte[] message = new byte[cipher.getBlockSize()];
+    new Random(1).nextBytes(message);
+    byte[] buffer = message.clone();
+
+    // EXECUTION
+    cipher.encryptBlock(buffer, 0, buffer, 0);
+    cipher.decryptBlock(buffer, 0, buffer, 0);
+
+    // ASSERTION
+    Assert.assertEquals(buffer, message);
+  }
+
+  @DataProvider(name = "ciphers")
+  Object[][] ciphersProvider() {
+    byte[] key = new byte[16];
+    new Random(7).nextBytes(key);
+
+    return new Object[][] {
+            { new DES(Arrays.copyOf(key, 8)) },
+            { new DEAL(key) },
+            { new RC5(16, 12, key.length, key) },
+            { new RC5(32, 12, key.length, key) },
+            { new RC5(64, 12, key.length, key) },
+            { new LOKI97(key, initS1(), initS2()) }
+    };
+  }
+}
@@ -0,0 +1,198 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.async.CancellableCompletableFuture;
+import org.client.crypto.block.BufferRead;
+import org.client.crypto.block.BufferWrite;
+import org.client.crypto.block.SegmentRead;
+import org.client.crypto.block.SegmentWrite;
+import org.client.crypto.des.DES;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.loki97.LOKI97;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+import static org.client.crypto.enums.PackingMode.PKCS7;
+import static testsCW.CipherFixtures.randomBytes;
+
+public class ByteBufferTest {
+  private static final int[] LENGTHS = { 5, 64, 200_003 };
+
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testDirectBuffersMatchArray(SymmetricEncryption cipher, EncryptionMode mode) {
+    for (int length : LENGTHS) {
+      // SETUP
+      byte[] message = randomBytes(new Random(length), length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, new byte[cipher.getBlockSize()]);
+
+      ByteBuffer src = ByteBuffer.allocateDirect(length + 3).position(3);
+      src.put(message).flip().position(3);
+      ByteBuffer encrypted = ByteBuffer.allocateDirect(length + 2 * cipher.getBlockSize());
+      ByteBuffer decrypted = ByteBuffer.allocateDirect(length + cipher.getBlockSize());
+
+      // EXECUTION
+      int encryptedLength = algorithm.encrypt(src, encrypted);
+      int decryptedLength = algorithm.decrypt(encrypted.flip(), decrypted);
+
+      // ASSERTION
+      Assert.assertEquals(src.remaining(), 0);
+      Assert.assertEquals(encryptedLength, algorithm.encrypt(message).length);
+      Assert.assertEquals(toArray(encrypted.rewind(), encryptedLength), algorithm.encrypt(message));
+      Assert.assertEquals(decryptedLength, length);
+      Assert.assertEquals(toArray(decrypted.flip(), decryptedLength), message);
+    }
+  }
+
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testSameBufferInPlace(SymmetricEncryption cipher, EncryptionMode mode) {
+    for (int length : LENGTHS) {
+      // SETUP
+      byte[] message = randomBytes(new Random(length), length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, new byte[cipher.getBlockSize()]);
+
+      ByteBuffer buffer = ByteBuffer.allocateDirect(length + cipher.getBlockSize());
+      buffer.put(message).flip();
+
+      // EXECUTION
+      algorithm.encrypt(buffer, buffer);
+      byte[] encrypted = toArray(buffer.flip(), buffer.remaining());
+
+      algorithm.decrypt(buffer.rewind(), buffer);
+      byte[] decrypted = toArray(buffer.flip(), buffer.remaining());
+
+      // ASSERTION
+      Assert.assertEquals(encrypted, algorithm.encrypt(message));
+      Assert.assertEquals(decrypted, message);
+    }
+  }
+
+  @Test
+  void testMemorySegmentInPlace() {
+    // SETUP
+    byte[] message = randomBytes(new Random(100_000), 100_000);
+    SymmetricAlgorithm algorithm =
+            new SymmetricAlgorithm(new LOKI97(new byte[16]), EncryptionMode.CBC, PKCS7, new byte[16]);
+
+    try (Arena arena = Arena.ofShared()) {
+      MemorySegment segment = arena.allocate(message.length + 16);
+      MemorySegment.copy(message, 0, segment, ValueLayout.JAVA_BYTE, 0, message.length);
+
+      // EXECUTION
+      long encryptedLength = algorithm.encrypt(segment.asSlice(0, message.length), segment);
+      byte[] encrypted = segment.asSlice(0, encryptedLength).toArray(ValueLayout.JAVA_BYTE);
+
+      long decryptedLength = algorithm.decrypt(segment.asSlice(0, encryptedLength), segment);
+
+      // ASSERTION
+      Assert.assertEquals(encrypted, algorithm.encrypt(message));
+      Assert.assertEquals(segment.asSlice(0, decryptedLength).toArray(ValueLayout.JAVA_BYTE), message);
+    }
+  }
+
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testMemorySegmentsMatchArray(SymmetricEncryption cipher, EncryptionMode mode) {
+    for (int length : LENGTHS) {
+      // SETUP
+      byte[] message = randomBytes(new Random(length), length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, new byte[cipher.getBlockSize()]);
+
+      try (Arena arena = Arena.ofShared()) {
+        MemorySegment src = arena.allocate(length);
+        MemorySegment.copy(message, 0, src, ValueLayout.JAVA_BYTE, 0, length);
+        MemorySegment encrypted = arena.allocate(length + cipher.getBlockSize());
+        MemorySegment decrypted = arena.allocate(length + cipher.getBlockSize());
+
+        // EXECUTION
+        long encryptedLength = algorithm.encrypt(src, encrypted);
+        long decryptedLength = algorithm.decrypt(encrypted.asSlice(0, encryptedLength), decrypted);
+
+        // ASSERTION
+        Assert.assertEquals(encrypted.asSlice(0, encryptedLength).toArray(ValueLayout.JAVA_BYTE),
+                algorithm.encrypt(message));
+        Assert.assertEquals(decrypted.asSlice(0, decryptedLength).toArray(ValueLayout.JAVA_BYTE), message);
+      }
+    }
+  }
+
+  @Test
+  void testMemorySegmentAsyncProgress() throws ExecutionException, InterruptedException {
+    // SETUP
+    byte[] message = randomBytes(new Random(3), 1 << 20);
+    SymmetricAlgorithm algorithm =
+            new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CBC, PKCS7, new byte[8]);
+
+    try (Arena arena = Arena.ofShared()) {
+      MemorySegment segment = arena.allocate(message.length + 8);
+      MemorySegment.copy(message, 0, segment, ValueLayout.JAVA_BYTE, 0, message.length);
+
+      // EXECUTION
+      CancellableCompletableFuture<Long> encryptFuture =
+              algorithm.encryptAsync(segment.asSlice(0, message.length), segment);
+      long encryptedLength = encryptFuture.get();
+
+      CancellableCompletableFuture<Long> decryptFuture =
+              algorithm.decryptAsync(segment.asSlice(0, encryptedLength), segment);
+      long decryptedLength = decryptFuture.get();
+
+      // ASSERTION
+      Assert.assertEquals(encryptFuture.getProgress(), 100.0);
+      Assert.assertEquals(encryptFuture.getProcessedBytes(), encryptedLength);
+      Assert.assertEquals(decryptFuture.getProgress(), 100.0);
+      Assert.assertEquals(segment.asSlice(0, decryptedLength).toArray(ValueLayout.JAVA_BYTE), message);
+    }
+  }
+
+  @Test
+  void testOverlapDetection() {
+    // SETUP
+    ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+    ByteBuffer other = ByteBuffer.allocateDirect(64);
+    MemorySegment segment = MemorySegment.ofArray(new byte[64]);
+
+    // EXECUTION
+    boolean sameBuffer = new BufferRead(buffer.slice(0, 32), 8).overlaps(new BufferWrite(buffer.slice(16, 48), 8));
+    boolean otherBuffer = new BufferRead(buffer, 8).overlaps(new BufferWrite(other, 8));
+    boolean sameSegment = new SegmentRead(segment.asSlice(0, 32), 8).overlaps(new SegmentWrite(segment, 8));
+    boolean disjointSlices =
+            new SegmentRead(segment.asSlice(0, 32), 8).overlaps(new SegmentWrite(segment.asSlice(32), 8));
+
+    // ASSERTION
+    Assert.assertTrue(sameBuffer);
+    Assert.assertFalse(otherBuffer);
+    Assert.assertTrue(sameSegment);
+    Assert.assertFalse(disjointSlices);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testEncryptIntoSmallSegment() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.ECB, PKCS7);
+
+    // EXECUTION
+    algorithm.encrypt(MemorySegment.ofArray(new byte[16]), MemorySegment.ofArray(new byte[16]));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testEncryptIntoSmallBuffer() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.ECB, PKCS7);
+
+    // EXECUTION
+    algorithm.encrypt(ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16));
+  }
+
+  private static byte[] toArray(ByteBuffer buffer, int length) {
+    byte[] res = new byte[length];
+    buffer.get(buffer.position(), res);
+
+    return res;
+  }
+}
@@ -0,0 +1,154 @@
+package testsCW;
+
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.enums.Algorithm;
+import org.client.models.ChatConfig;
+import org.client.services.ChatConfigStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+public class ChatConfigStoreTest {
+  private static final String EXTERNAL_CONFIG = """
+          {"key":"AQID","algorithm":"LOKI97","encryptionMode":"CBC","packingMode":"PKCS7","iv":"BAUG"}""";
+
+  private static ChatConfig newConfig(byte[] key) {
+    return new ChatConfig(key, Algorithm.RC5, EncryptionMode.CTR, PackingMode.ANSIX923, new byte[] { 9, 8, 7 });
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  void testWriteIsReadBack() throws IOException {
+    // SETUP
+    Path dir = Files.createTempDirectory("configs");
+    List<String> changes = new CopyOnWriteArrayList<>();
+    ChatConfigStore store = new ChatConfigStore(username -> dir, (username, chatName) -> changes.add(chatName));
+    ChatConfig expectedConfig = newConfig(new byte[] { 1, 2, 3 });
+
+    // EXECUTION
+    Path file = store.write("alice", "bob", expectedConfig);
+    ChatConfig cached = store.get("alice", "bob");
+    ChatConfig fromDisk = new ChatConfigStore(username -> dir, (username, chatName) -> { }).get("alice", "bob");
+
+    // ASSERTION
+    try (Stream<Path> files = Files.list(dir)) {
+      Assert.assertEquals(files.toList(), List.of(file));
+    }
+    Assert.assertSame(cached, expectedConfig);
+    Assert.assertEquals(fromDisk, expectedConfig);
+    Assert.assertEquals(changes, List.of("bob"));
+    Assert.assertNull(store.get("alice", "carol"));
+
+    deleteRecursively(dir);
+  }
+
+  @Test
+  void testConfigArraysAreCopied() {
+    // SETUP
+    byte[] key = { 1, 2, 3 };
+    ChatConfig config = newConfig(key);
+
+    // EXECUTION
+    key[0] = 0;
+    config.getKey()[1] = 0;
+    config.getIV()[0] = 0;
+
+    // ASSERTION
+    Assert.assertEquals(config.getKey(), new byte[] { 1, 2, 3 });
+    Assert.assertEquals(config.getIV(), new byte[] { 9, 8, 7 });
+  }
+
+  @Test
+  void testWithoutKey() throws IOException {
+    // SETUP
+    Path dir = Files.createTempDirectory("configs");
+    ChatConfigStore store = new ChatConfigStore(username -> dir, (username, chatName) -> { });
+    store.write("alice", "bob", newConfig(new byte[] { 1, 2, 3 }));
+
+    // EXECUTION
+    store.write("alice", "bob", store.get("alice", "bob").withKey(null));
+    ChatConfig actualConfig = new ChatConfigStore(username -> dir, (username, chatName) -> { }).get("alice", "bob");
+
+    // ASSERTION
+    Assert.assertEquals(actualConfig, newConfig(null));
+
+    deleteRecursively(dir);
+  }
+
+  @Test
+  void testExternalChangesAreWatched() throws Exception {
+    // SETUP
+    Path dir = Files.createTempDirectory("configs");
+    List<String> changes = new CopyOnWriteArrayList<>();
+    ChatConfigStore store = new ChatConfigStore(username -> dir, (username, chatName) -> changes.add(chatName));
+    store.write("alice", "bob", newConfig(new byte[] { 1, 2, 3 }));
+    store.load("alice");
+
+    // EXECUTION
+    Files.writeString(dir.resolve("carol" + ChatConfigStore.CONFIG_SUFFIX), EXTERNAL_CONFIG);
+    await(() -> changes.contains("carol"));
+    ChatConfig actualCreated = store.get("alice", "carol");
+
+    Files.delete(dir.resolve("bob" + ChatConfigStore.CONFIG_SUFFIX));
+    await(() -> changes.size() >= 3);
+    ChatConfig actualDeleted = store.get("alice", "bob");
+
+    store.close();
+
+    // ASSERTION
+    Assert.assertEquals(actualCreated,
+            new ChatConfig(new byte[] { 1, 2, 3 }, Algorithm.LOKI97, EncryptionMode.CBC, PackingMode.PKCS7,
+                    new byte[] { 4, 5, 6 }));
+    Assert.assertNull(actualDeleted);
+    Assert.assertEquals(changes, List.of("bob", "carol", "bob"));
+
+    deleteRecursively(dir);
+  }
+
+  @Test
+  void testOwnWriteNotifiesOnce() throws Exception {
+    // SETUP
+    Path dir = Files.createTempDirectory("configs");
+    List<String> changes = new CopyOnWriteArrayList<>();
+    ChatConfigStore store = new ChatConfigStore(username -> dir, (username, chatName) -> changes.add(chatName));
+    store.load("alice");
+
+    // EXECUTION
+    store.write("alice", "bob", newConfig(new byte[] { 1, 2, 3 }));
+    store.write("alice", "carol", newConfig(new byte[] { 4, 5, 6 }));
+    // События WatchService о своих записях приходят позже, их нужно дождаться
+    Files.writeString(dir.resolve("dave" + ChatConfigStore.CONFIG_SUFFIX), EXTERNAL_CONFIG);
+    await(() -> changes.contains("dave"));
+    Thread.sleep(200);
+
+    store.close();
+
+    // ASSERTION
+    Assert.assertEquals(changes, List.of("bob", "carol", "dave"));
+
+    deleteRecursively(dir);
+  }
+}
@@ -0,0 +1,126 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.rc5.RC5;
+import org.client.services.CipherCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CipherCacheTest {
+  private static SymmetricAlgorithm newAlgorithm() {
+    return new SymmetricAlgorithm(new RC5(new byte[16], 16), EncryptionMode.ECB, PackingMode.PKCS7);
+  }
+
+  @Test
+  void testConcurrentMissesLoadOnce() throws Exception {
+    // SETUP
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CipherCache cache = new CipherCache(4, (username, chatName) -> {
+      loads.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return newAlgorithm();
+    });
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<SymmetricAlgorithm>> futures = new ArrayList<>();
+
+    // EXECUTION
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> cache.get("alice", "bob")));
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    List<SymmetricAlgorithm> actualAlgorithms = new ArrayList<>();
+    for (Future<SymmetricAlgorithm> future : futures) {
+      actualAlgorithms.add(future.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+
+    // ASSERTION
+    Assert.assertEquals(loads.get(), 1);
+    for (SymmetricAlgorithm algorithm : actualAlgorithms) {
+      Assert.assertSame(algorithm, actualAlgorithms.get(0));
+    }
+    Assert.assertEquals(cache.getMisses(), 1);
+    Assert.assertEquals(cache.getHits(), threads - 1);
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsed() throws IOException {
+    // SETUP
+    AtomicInteger loads = new AtomicInteger();
+    CipherCache cache = new CipherCache(2, (username, chatName) -> {
+      loads.incrementAndGet();
+      return newAlgorithm();
+    });
+
+    // EXECUTION
+    SymmetricAlgorithm first = cache.get("alice", "bob");
+    cache.get("alice", "carol");
+    cache.get("alice", "bob");
+    cache.get("alice", "dave");
+
+    SymmetricAlgorithm actualFirst = cache.get("alice", "bob");
+    cache.get("alice", "carol");
+
+    // ASSERTION
+    Assert.assertSame(actualFirst, first);
+    Assert.assertEquals(cache.size(), 2);
+    Assert.assertEquals(cache.getEvictions(), 2);
+    Assert.assertEquals(loads.get(), 4);
+  }
+
+  @Test
+  void testInvalidateReloads() throws IOException {
+    // SETUP
+    CipherCache cache = new CipherCache(4, (username, chatName) -> newAlgorithm());
+    SymmetricAlgorithm oldAlgorithm = cache.get("alice", "bob");
+
+    // EXECUTION
+    cache.invalidate("alice", "bob");
+    SymmetricAlgorithm newAlgorithm = cache.get("alice", "bob");
+
+    // ASSERTION
+    Assert.assertNotSame(newAlgorithm, oldAlgorithm);
+    Assert.assertSame(cache.get("alice", "bob"), newAlgorithm);
+    Assert.assertNotSame(cache.get("carol", "bob"), newAlgorithm);
+  }
+
+  @Test
+  void testFailedOrEmptyLoadIsNotCached() throws IOException {
+    // SETUP
+    AtomicInteger loads = new AtomicInteger();
+    CipherCache cache = new CipherCache(4, (username, chatName) -> {
+      if (loads.incrementAndGet() == 1) {
+        throw new IOException("config is missing");
+      }
+      return loads.get() == 2 ? null : newAlgorithm();
+    });
+
+    // EXECUTION
+    Assert.assertThrows(IOException.class, () -> cache.get("alice", "bob"));
+    SymmetricAlgorithm withoutKey = cache.get("alice", "bob");
+    SymmetricAlgorithm withKey = cache.get("alice", "bob");
+
+    // ASSERTION
+    Assert.assertNull(withoutKey);
+    Assert.assertNotNull(withKey);
+    Assert.assertSame(cache.get("alice", "bob"), withKey);
+    Assert.assertEquals(loads.get(), 3);
+  }
+}
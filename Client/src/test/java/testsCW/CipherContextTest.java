@@ -0,0 +1,135 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DES;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.loki97.LOKI97;
+import org.client.crypto.stream.CipherContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.client.crypto.enums.PackingMode.PKCS7;
+import static testsCW.CipherFixtures.randomBytes;
+
+public class CipherContextTest {
+  @Test(dataProvider = "ciphersAndModes", dataProviderClass = CipherFixtures.class)
+  void testUpdateInPiecesMatchesArray(SymmetricEncryption cipher, EncryptionMode mode) {
+    for (int length : new int[] { 1, 8, 16, 33, 5_000 }) {
+      // SETUP
+      Random random = new Random(length);
+      byte[] IV = randomBytes(random, cipher.getBlockSize());
+      byte[] message = randomBytes(random, length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, PKCS7, IV);
+
+      // EXECUTION
+      byte[] encrypted = inPieces(algorithm.encryptContext(), message, random);
+      byte[] decrypted = inPieces(algorithm.decryptContext(), encrypted, random);
+
+      // ASSERTION
+      Assert.assertEquals(encrypted, algorithm.encrypt(message));
+      Assert.assertEquals(decrypted, message);
+    }
+  }
+
+  @Test
+  void testUpdateInPlace() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CBC, PKCS7, new byte[8]);
+    byte[] message = randomBytes(new Random(1), 45);
+    byte[] buffer = Arrays.copyOf(message, 64);
+    CipherContext context = algorithm.encryptContext();
+
+    // EXECUTION
+    int written = context.update(buffer, 0, 45, buffer, 0);
+    written += context.doFinal(buffer, written);
+
+    // ASSERTION
+    Assert.assertEquals(written, 48);
+    Assert.assertEquals(Arrays.copyOf(buffer, written), algorithm.encrypt(message));
+  }
+
+  @Test
+  void testConcurrentContextsWithOwnIVs() throws ExecutionException, InterruptedException {
+    // SETUP
+    SymmetricAlgorithm algorithm =
+            new SymmetricAlgorithm(new LOKI97(new byte[16]), EncryptionMode.CBC, PKCS7, new byte[16]);
+    Random random = new Random(2);
+    List<byte[]> IVs = new ArrayList<>();
+    List<byte[]> messages = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      IVs.add(randomBytes(random, 16));
+      messages.add(randomBytes(random, 10_000 + i));
+    }
+
+    // EXECUTION
+    List<Future<byte[]>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      for (int i = 0; i < IVs.size(); i++) {
+        CipherContext context = algorithm.encryptContext(IVs.get(i));
+        byte[] message = messages.get(i);
+        futures.add(executor.submit(() -> inPieces(context, message, new Random(message.length))));
+      }
+    }
+
+    // ASSERTION
+    for (int i = 0; i < IVs.size(); i++) {
+      byte[] expected = new SymmetricAlgorithm(new LOKI97(new byte[16]), EncryptionMode.CBC, PKCS7, IVs.get(i))
+              .encrypt(messages.get(i));
+      Assert.assertEquals(futures.get(i).get(), expected);
+    }
+  }
+
+  @Test
+  void testDoFinalRetryAfterSmallOutput() {
+    // SETUP
+    SymmetricAlgorithm algorithm = new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.CBC, PKCS7, new byte[8]);
+    byte[] message = randomBytes(new Random(4), 45);
+    byte[] output = new byte[48];
+    CipherContext context = algorithm.encryptContext();
+    int written = context.update(message, 0, message.length, output, 0);
+
+    // EXECUTION
+    Assert.assertThrows(IllegalArgumentException.class, () -> context.doFinal(new byte[4], 0));
+    written += context.doFinal(output, written);
+
+    // ASSERTION
+    Assert.assertEquals(written, 48);
+    Assert.assertEquals(output, algorithm.encrypt(message));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  void testUpdateAfterDoFinal() {
+    // SETUP
+    CipherContext context =
+            new SymmetricAlgorithm(new DES(new byte[8]), EncryptionMode.ECB, PKCS7).encryptContext();
+    context.doFinal(new byte[10]);
+
+    // EXECUTION
+    context.update(new byte[10]);
+  }
+
+  private static byte[] inPieces(CipherContext context, byte[] data, Random random) {
+    ByteArrayOutputStream res = new ByteArrayOutputStream();
+
+    int offset = 0;
+    while (offset < data.length) {
+      int n = Math.min(data.length - offset, 1 + random.nextInt(40));
+      res.writeBytes(context.update(data, offset, n));
+      offset += n;
+    }
+    res.writeBytes(context.doFinal());
+
+    return res.toByteArray();
+  }
+}
@@ -0,0 +1,67 @@
+package testsCW;
+
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DES;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.loki97.LOKI97;
+import org.client.crypto.rc5.RC5;
+import org.testng.annotations.DataProvider;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.client.crypto.enums.PackingMode.*;
+
+/// Общие данные для тестов, сверяющих разные пути шифрования с шифрованием массива:
+/// по шифру каждого семейства (блоки 8 и 16 байт) во всех режимах
+public class CipherFixtures {
+  @DataProvider(name = "ciphersAndModes")
+  public static Object[][] ciphersAndModes() {
+    SymmetricEncryption[] ciphers = ciphers();
+    EncryptionMode[] modes = EncryptionMode.values();
+
+    Object[][] res = new Object[ciphers.length * modes.length][];
+    int i = 0;
+    for (SymmetricEncryption cipher : ciphers) {
+      for (EncryptionMode mode : modes) {
+        res[i++] = new Object[] { cipher, mode };
+      }
+    }
+
+    return res;
+  }
+
+  @DataProvider(name = "ciphersModesAndPackings")
+  public static Object[][] ciphersModesAndPackings() {
+    Object[][] ciphersAndModes = ciphersAndModes();
+    PackingMode[] packings = { PKCS7, ANSIX923, NO };
+
+    Object[][] res = new Object[ciphersAndModes.length * packings.length][];
+    int i = 0;
+    for (Object[] cipherAndMode : ciphersAndModes) {
+      for (PackingMode packing : packings) {
+        res[i++] = new Object[] { cipherAndMode[0], cipherAndMode[1], packing };
+      }
+    }
+
+    return res;
+  }
+
+  public static byte[] randomBytes(Random random, int length) {
+    byte[] res = new byte[length];
+    random.nextBytes(res);
+
+    return res;
+  }
+
+  private static SymmetricEncryption[] ciphers() {
+    byte[] key = randomBytes(new Random(5), 16);
+
+    return new SymmetricEncryption[] {
+            new DES(Arrays.copyOf(key, 8)),
+            new RC5(32, 12, key.length, key),
+            new LOKI97(key)
+    };
+  }
+}
@@ -0,0 +1,85 @@
+package testsCW;
+
+import org.client.crypto.modes.Counter;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class CounterTest {
+
+  @Test(dataProvider = "IVsAndIndices")
+  void testCtrMatchesBigInteger(byte[] IV, BigInteger delta, long i) {
+    // SETUP
+    byte[] expectedOutput = reference(IV, BigInteger.valueOf(i));
+    byte[] actualOutput = new byte[IV.length];
+
+    // EXECUTION
+    new Counter(IV, delta).ctr(i, actualOutput);
+
+    // ASSERTION
+    Assert.assertEquals(actualOutput, expectedOutput);
+  }
+
+  @Test(dataProvider = "IVsAndIndices")
+  void testRandomDeltaMatchesBigInteger(byte[] IV, BigInteger delta, long i) {
+    // SETUP
+    BigInteger modulus = BigInteger.TWO.pow(8 * IV.length);
+    byte[] expectedOutput = reference(IV, delta.multiply(BigInteger.valueOf(i)).mod(modulus));
+    byte[] actualOutput = new byte[IV.length];
+
+    // EXECUTION
+    new Counter(IV, delta).randomDelta(i, actualOutput);
+
+    // ASSERTION
+    Assert.assertEquals(actualOutput, expectedOutput);
+  }
+
+  /// Прежний расчёт в SymmetricAlgorithm: младшие байты new BigInteger(IV).add(n).toByteArray()
+  private static byte[] reference(byte[] IV, BigInteger n) {
+    byte[] res = new byte[IV.length];
+    byte[] sum = new BigInteger(IV).add(n).toByteArray();
+
+    int index = res.length - 1;
+    int sumIndex = sum.length - 1;
+    for (; sumIndex >= 0 && index >= 0; sumIndex--, index--) {
+      res[index] = sum[sumIndex];
+    }
+
+    return res;
+  }
+
+  @DataProvider(name = "IVsAndIndices")
+  Object[][] IVsAndIndicesProvider() {
+    Random random = new Random(13);
+    int[] blockSizes = { 4, 8, 12, 16, 24 };
+    long[] indices = { 0, 1, 2, 255, 256, 65_535, 1L << 32, Long.MAX_VALUE };
+    Object[][] res = new Object[blockSizes.length * 400][];
+
+    for (int k = 0; k < res.length; k++) {
+      byte[] IV = new byte[blockSizes[k % blockSizes.length]];
+
+      // Граничные IV: 0, -1, минимальное отрицательное, -256 и случайные
+      switch (k / blockSizes.length % 8) {
+        case 0 -> { }
+        case 1 -> Arrays.fill(IV, (byte) 0xFF);
+        case 2 -> IV[0] = (byte) 0x80;
+        case 3 -> {
+          Arrays.fill(IV, (byte) 0xFF);
+          IV[IV.length - 1] = 0;
+        }
+        default -> random.nextBytes(IV);
+      }
+
+      BigInteger delta = new BigInteger(8 * IV.length + 8, random).subtract(BigInteger.TWO.pow(8 * IV.length));
+      long i = k % 3 == 0 ? indices[k % indices.length] : random.nextLong(k % 2 == 0 ? 1000 : Long.MAX_VALUE);
+
+      res[k] = new Object[] { IV, delta, i };
+    }
+
+    return res;
+  }
+}
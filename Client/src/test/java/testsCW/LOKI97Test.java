@@ -7,8 +7,6 @@ import org.client.crypto.loki97.impl.LOKI97GenKey;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import java.util.List;
-
 import static org.client.crypto.loki97.boxes.Sboxes.initS1;
 import static org.client.crypto.loki97.boxes.Sboxes.initS2;
 
@@ -27,7 +25,7 @@ public class LOKI97Test {
             (byte) 0x18, (byte) 0x19, (byte) 0x1A, (byte) 0x1B,
             (byte) 0x1C, (byte) 0x1D, (byte) 0x1E, (byte) 0x1F
     };
-    List<Long> expectedOutput = List.of(
+    long[] expectedOutput = {
             0xECB82110452BF90AL, 0x592CD965E4168E33L, 0x1A8E5818A655138CL, 0x86E3263EBBBF339CL,
             0xAD6DFD04A887509BL, 0xB3A56496E96B4F0DL, 0x52A0073EA724A264L, 0x2FF1BF749D54136BL,
             0xBD0BC040D3A54F28L, 0x929220E7076443A8L, 0x7FB7D2666220233AL, 0x56FE853A068B8D2EL,
@@ -40,12 +38,12 @@ public class LOKI97Test {
             0xB0C6F115D3ECE6C2L, 0xAF82DA2EF75F6924L, 0xAA5DE8BDB42A8BDBL, 0x50BB552A21F75E7DL,
             0xB8EB467438FF42E4L, 0x936362030FA48C95L, 0xE55434C694CE74CEL, 0xBDA3575166DF26BCL,
             0xB779C086BDB9551EL, 0x1322E154E6746255L, 0x3441894738B21D3DL, 0xF9539B20F3944405L
-    );
+    };
 
     // EXECUTION
     LOKI97FeistelFunction f = new LOKI97FeistelFunction(initS1(), initS2());
     LOKI97GenKey genKey = new LOKI97GenKey(key.length, f);
-    List<Long> actualOutput = genKey.genKey(key);
+    long[] actualOutput = genKey.genKey(key);
 
     // ASSERTION
     Assert.assertEquals(actualOutput, expectedOutput);
@@ -186,4 +184,26 @@ public class LOKI97Test {
     // ASSERTION
     Assert.assertEquals(actualOutput, expectedOutput);
   }
+
+  @Test
+  void testSharedSboxes() {
+    // SETUP
+    byte[] key = new byte[24];
+    byte[] input = new byte[16];
+    for (int i = 0; i < input.length; i++) {
+      key[i] = (byte) (3 * i);
+      input[i] = (byte) i;
+    }
+
+    // EXECUTION
+    byte[] actualOutput = new LOKI97(key).encryption(input);
+    byte[] repeatedOutput = new LOKI97(key).encryption(input);
+    byte[] expectedOutput = new LOKI97(key, initS1(), initS2()).encryption(input);
+    byte[] decrypted = new LOKI97(key).decryption(actualOutput);
+
+    // ASSERTION
+    Assert.assertEquals(actualOutput, expectedOutput);
+    Assert.assertEquals(repeatedOutput, expectedOutput);
+    Assert.assertEquals(decrypted, input);
+  }
 }
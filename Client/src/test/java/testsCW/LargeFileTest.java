@@ -0,0 +1,257 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.block.ArrayRead;
+import org.client.crypto.block.FileRead;
+import org.client.crypto.block.FileWrite;
+import org.client.crypto.block.MappedRead;
+import org.client.crypto.block.MappedWrite;
+import org.client.crypto.block.ReadBlock;
+import org.client.crypto.block.WriteBlock;
+import org.client.crypto.modes.Packing;
+import org.client.crypto.rc5.RC5;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.client.crypto.enums.EncryptionMode.*;
+import static org.client.crypto.enums.PackingMode.*;
+
+public class LargeFileTest {
+
+  // Тесты с файлами в десятки гигабайт; включаются профилем large-tests
+  static final String LARGE = "large";
+  // Индекс блока, который не помещается в int
+  static final long FAR_INDEX = (1L << 31) + 5;
+  static final int BLOCK_SIZE = 8;
+
+  Path testDirectory;
+
+  @BeforeClass(alwaysRun = true)
+  void initTestClass() throws IOException {
+    testDirectory = Files.createTempDirectory("LargeFileTest");
+  }
+
+  @AfterClass(alwaysRun = true)
+  void cleanUp() throws IOException {
+    try (Stream<Path> files = Files.walk(testDirectory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test(groups = LARGE)
+  void testFileReadBeyondIntIndex() throws IOException {
+    // SETUP
+    byte[] expectedBlock = {
+        (byte) 0x01, (byte) 0x23, (byte) 0x45, (byte) 0x67, (byte) 0x89, (byte) 0xAB, (byte) 0xCD, (byte) 0xEF
+    };
+    Path file = sparseFileWithBlock("sparseRead", FAR_INDEX, expectedBlock);
+
+    // EXECUTION
+    byte[] buffered;
+    byte[] mapped;
+    try (ReadBlock readBlock = new FileRead(file.toString(), BLOCK_SIZE)) {
+      buffered = readBlock.get(FAR_INDEX);
+    }
+    try (ReadBlock readBlock = new MappedRead(file.toString(), BLOCK_SIZE)) {
+      mapped = readBlock.get(FAR_INDEX);
+    }
+
+    // ASSERTION
+    Assert.assertEquals(buffered, expectedBlock);
+    Assert.assertEquals(mapped, expectedBlock);
+  }
+
+  @Test(groups = LARGE)
+  void testFileWriteBeyondIntIndex() throws IOException {
+    // SETUP
+    byte[] block = {
+        (byte) 0xFE, (byte) 0xDC, (byte) 0xBA, (byte) 0x98, (byte) 0x76, (byte) 0x54, (byte) 0x32, (byte) 0x10
+    };
+    Path bufferedFile = testDirectory.resolve("sparseWrite");
+    Path mappedFile = testDirectory.resolve("sparseMappedWrite");
+
+    // EXECUTION
+    try (WriteBlock writeBlock = new FileWrite(bufferedFile.toString(), BLOCK_SIZE)) {
+      writeBlock.put(FAR_INDEX, block);
+    }
+    try (WriteBlock writeBlock = new MappedWrite(mappedFile.toString(), BLOCK_SIZE, (FAR_INDEX + 1) * BLOCK_SIZE)) {
+      writeBlock.put(FAR_INDEX, block);
+    }
+
+    // ASSERTION
+    Assert.assertEquals(Files.size(bufferedFile), (FAR_INDEX + 1) * BLOCK_SIZE);
+    Assert.assertEquals(Files.size(mappedFile), (FAR_INDEX + 1) * BLOCK_SIZE);
+    Assert.assertEquals(readBlockAt(bufferedFile, FAR_INDEX), block);
+    Assert.assertEquals(readBlockAt(mappedFile, FAR_INDEX), block);
+  }
+
+  @Test(groups = LARGE)
+  void testSegmentBeyondIntSize() throws IOException {
+    // SETUP
+    long size = (1L << 31) + 13;
+    byte[] tail = new byte[13];
+    new Random(7).nextBytes(tail);
+    SymmetricAlgorithm cryptoContext = new SymmetricAlgorithm(new RC5(32, 12, 16, new byte[16]), ECB, PKCS7);
+    Path file = sparseFileWithBlock("sparseSegment", (size - tail.length) / BLOCK_SIZE, tail);
+
+    // EXECUTION
+    long encryptedLength;
+    byte[] lastBlocks;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+         Arena arena = Arena.ofShared()) {
+      MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size + 3, arena);
+      encryptedLength = cryptoContext.encrypt(segment.asSlice(0, size), segment);
+      lastBlocks = segment.asSlice(encryptedLength - 16, 16).toArray(ValueLayout.JAVA_BYTE);
+    }
+
+    // ASSERTION
+    // В ECB последние блоки зависят только от своего открытого текста - хвоста файла
+    Assert.assertEquals(encryptedLength, size + 3);
+    Assert.assertEquals(lastBlocks, cryptoContext.encrypt(tail));
+  }
+
+  @Test
+  void testStreamingFileCycle() throws IOException {
+    // SETUP
+    byte[] key = {
+        (byte) 0x91, (byte) 0x5F, (byte) 0x46, (byte) 0x19, (byte) 0xBE, (byte) 0x41, (byte) 0xB2, (byte) 0x51,
+        (byte) 0x63, (byte) 0x55, (byte) 0xA5, (byte) 0x01, (byte) 0x10, (byte) 0xA9, (byte) 0xCE, (byte) 0x91
+    };
+    byte[] initVector = {
+        (byte) 0x5a, (byte) 0xa8, (byte) 0x08, (byte) 0x43, (byte) 0x19, (byte) 0xe5, (byte) 0xd8, (byte) 0x2d,
+    };
+
+    Path in = testDirectory.resolve("large");
+    Path encOut = testDirectory.resolve("largeEncrypted");
+    Path decOut = testDirectory.resolve("largeDecrypted");
+
+    // Файл пишется порциями, целиком в памяти он не держится
+    writeRandomFile(in, (32L << 20) + 3);
+
+    // EXECUTION
+    var cryptoSystem = new RC5(32, 12, key.length, key);
+    var cryptoContext = new SymmetricAlgorithm(cryptoSystem, CTR, ISO10126, initVector);
+
+    cryptoContext.encrypt(in.toString(), encOut.toString());
+    cryptoContext.decrypt(encOut.toString(), decOut.toString());
+
+    // ASSERTION
+    Assert.assertTrue(areFilesEqual(in, decOut));
+  }
+
+  @Test
+  void testSpanReadAcrossChunks() throws IOException {
+    // SETUP
+    Path file = testDirectory.resolve("spans");
+    byte[] data = new byte[(2 << 20) + 13];
+    new Random(3).nextBytes(data);
+    Files.write(file, data);
+
+    Packing packing = new Packing(BLOCK_SIZE, PKCS7);
+    long blockCount = data.length / BLOCK_SIZE + 1;
+    int count = 40_000;
+    // Первый участок пересекает границу окна FileRead в 1 МБ, второй заканчивается блоком с набивкой
+    long[] starts = { (1 << 20) / BLOCK_SIZE - count / 2, blockCount - count };
+
+    for (long start : starts) {
+      try (ReadBlock buffered = new FileRead(file.toString(), BLOCK_SIZE, packing::fill);
+           ReadBlock mapped = new MappedRead(file.toString(), BLOCK_SIZE, packing::fill);
+           ReadBlock array = new ArrayRead(data, BLOCK_SIZE, packing::fill)) {
+        // EXECUTION
+        byte[] expectedBlocks = new byte[count * BLOCK_SIZE];
+        for (int k = 0; k < count; k++) {
+          System.arraycopy(array.get(start + k), 0, expectedBlocks, k * BLOCK_SIZE, BLOCK_SIZE);
+        }
+
+        byte[] bufferedBlocks = new byte[count * BLOCK_SIZE];
+        byte[] mappedBlocks = new byte[count * BLOCK_SIZE];
+        byte[] arrayBlocks = new byte[count * BLOCK_SIZE];
+        buffered.get(start, count, bufferedBlocks);
+        mapped.get(start, count, mappedBlocks);
+        array.get(start, count, arrayBlocks);
+
+        // ASSERTION
+        Assert.assertEquals(bufferedBlocks, expectedBlocks);
+        Assert.assertEquals(mappedBlocks, expectedBlocks);
+        Assert.assertEquals(arrayBlocks, expectedBlocks);
+      }
+    }
+  }
+
+  // region -- Utility --
+
+  Path sparseFileWithBlock(String name, long index, byte[] block) throws IOException {
+    Path file = testDirectory.resolve(name);
+
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+      randomAccessFile.setLength((index + 1) * BLOCK_SIZE);
+      randomAccessFile.seek(index * BLOCK_SIZE);
+      randomAccessFile.write(block);
+    }
+
+    return file;
+  }
+
+  byte[] readBlockAt(Path file, long index) throws IOException {
+    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+      byte[] block = new byte[BLOCK_SIZE];
+      fileChannel.read(ByteBuffer.wrap(block), index * BLOCK_SIZE);
+      return block;
+    }
+  }
+
+  void writeRandomFile(Path file, long size) throws IOException {
+    Random random = new Random(42);
+    byte[] chunk = new byte[1 << 16];
+
+    try (FileChannel fileChannel = FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (long written = 0; written < size; ) {
+        random.nextBytes(chunk);
+        ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, size - written));
+        written += fileChannel.write(buffer);
+      }
+    }
+  }
+
+  boolean areFilesEqual(Path path1, Path path2) throws IOException {
+    try (FileChannel fileChannel1 = FileChannel.open(path1, StandardOpenOption.READ);
+         FileChannel fileChannel2 = FileChannel.open(path2, StandardOpenOption.READ)) {
+      if (fileChannel1.size() != fileChannel2.size()) {
+        return false;
+      }
+
+      int blockSize = 1 << 16;
+      byte[] arr1 = new byte[blockSize];
+      byte[] arr2 = new byte[blockSize];
+      for (long i = 0; i < fileChannel1.size(); i += blockSize) {
+        fileChannel1.read(ByteBuffer.wrap(arr1));
+        fileChannel2.read(ByteBuffer.wrap(arr2));
+        if (!Arrays.equals(arr1, arr2)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+  }
+
+  // endregion
+}
@@ -0,0 +1,95 @@
+package testsCW;
+
+import org.client.crypto.operations.RandomSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.client.crypto.operations.ArrayOperations.*;
+import static org.client.crypto.operations.BitOperations.xor;
+
+public class OperationsTest {
+  @Test
+  void testXorWithOffsetsMatchesBytewise() {
+    Random random = new Random(1);
+
+    for (int len = 0; len < 40; len++) {
+      // SETUP
+      byte[] arr1 = new byte[len + 5];
+      byte[] arr2 = new byte[len + 7];
+      random.nextBytes(arr1);
+      random.nextBytes(arr2);
+
+      byte[] expected = new byte[len];
+      for (int i = 0; i < len; i++) {
+        expected[i] = (byte) (arr1[3 + i] ^ arr2[6 + i]);
+      }
+
+      // EXECUTION
+      byte[] actual = new byte[len + 2];
+      xor(arr1, 3, arr2, 6, actual, 1, len);
+
+      byte[] inPlace = arr1.clone();
+      xor(inPlace, 3, arr2, 6, len);
+
+      // ASSERTION
+      for (int i = 0; i < len; i++) {
+        Assert.assertEquals(actual[1 + i], expected[i]);
+        Assert.assertEquals(inPlace[3 + i], expected[i]);
+      }
+    }
+  }
+
+  @Test
+  void testLongConversionsMatchByteBuffer() {
+    // SETUP
+    Random random = new Random(2);
+    byte[] bytes = new byte[20];
+    random.nextBytes(bytes);
+
+    long L = random.nextLong();
+    long R = random.nextLong();
+
+    // EXECUTION
+    long bigEndian = byteArrayToLongBigEndian(bytes, 3, 8);
+    long littleEndian = byteArrayToLongLittleEndian(bytes, 3, 8);
+
+    byte[] written = new byte[20];
+    concatLongToByteArray(L, R, written, 4);
+
+    byte[] littleEndianWritten = new byte[9];
+    longToByteArrayLittleEndian(L, littleEndianWritten, 1, 8);
+
+    // ASSERTION
+    Assert.assertEquals(bigEndian, ByteBuffer.wrap(bytes, 3, 8).getLong());
+    Assert.assertEquals(littleEndian, ByteBuffer.wrap(bytes, 3, 8).order(ByteOrder.LITTLE_ENDIAN).getLong());
+    Assert.assertEquals(byteArrayToLongBigEndian(written, 4, 8), L);
+    Assert.assertEquals(byteArrayToLongBigEndian(written, 12, 8), R);
+    Assert.assertEquals(concatLongToByteArray(L, R), Arrays.copyOfRange(written, 4, 20));
+    Assert.assertEquals(ByteBuffer.wrap(littleEndianWritten, 1, 8).order(ByteOrder.LITTLE_ENDIAN).getLong(), L);
+    Assert.assertEquals(byteArrayToLongBigEndian(new byte[] { 1, 2, 3 }), 0x010203);
+    Assert.assertEquals(byteArrayToLongLittleEndian(new byte[] { 1, 2, 3 }), 0x030201);
+  }
+
+  @Test
+  void testRandomSourceFillsOnlyRequestedRange() throws InterruptedException {
+    // SETUP
+    byte[] first = new byte[300];
+    byte[] second = new byte[300];
+
+    // EXECUTION
+    RandomSource.nextBytes(first, 10, 280);
+    Thread thread = new Thread(() -> RandomSource.nextBytes(second, 10, 280));
+    thread.start();
+    thread.join();
+
+    // ASSERTION
+    Assert.assertEquals(Arrays.copyOf(first, 10), new byte[10]);
+    Assert.assertEquals(Arrays.copyOfRange(first, 290, 300), new byte[10]);
+    Assert.assertNotEquals(Arrays.copyOfRange(first, 10, 290), Arrays.copyOfRange(second, 10, 290));
+  }
+}
@@ -3,9 +3,11 @@ package testsCW;
 import org.client.crypto.SymmetricEncryption;
 import org.client.crypto.rc5.RC5;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 public class RC5Test {
 
@@ -260,4 +262,49 @@ public class RC5Test {
     // ASSERTION
     Assert.assertEquals(decryptedMessage, message);
   }
+
+  @Test(dataProvider = "wordsAndCounts")
+  void testEncryptBlocksMatchesEncryptBlock(int w, int count) {
+    // SETUP
+    byte[] key = new byte[16];
+    Random random = new Random(w + count);
+    random.nextBytes(key);
+
+    SymmetricEncryption rc5 = new RC5(w, 12, key.length, key);
+    int blockSize = rc5.getBlockSize();
+
+    byte[] message = new byte[count * blockSize + 5];
+    random.nextBytes(message);
+
+    byte[] expectedCipher = new byte[count * blockSize];
+    for (int k = 0; k < count; k++) {
+      rc5.encryptBlock(message, 5 + k * blockSize, expectedCipher, k * blockSize);
+    }
+
+    // EXECUTION
+    byte[] actualCipher = new byte[count * blockSize];
+    rc5.encryptBlocks(message, 5, count, actualCipher, 0);
+    byte[] decryptedMessage = actualCipher.clone();
+    rc5.decryptBlocks(decryptedMessage, 0, count, decryptedMessage, 0);
+
+    // ASSERTION
+    Assert.assertEquals(actualCipher, expectedCipher);
+    Assert.assertEquals(decryptedMessage, Arrays.copyOfRange(message, 5, message.length));
+  }
+
+  @DataProvider(name = "wordsAndCounts")
+  Object[][] wordsAndCountsProvider() {
+    int[] words = { 16, 32, 64 };
+    // Меньше, чем полос в векторе, ровно пачки и пачки с остатком
+    int[] counts = { 0, 1, 3, 8, 16, 32, 37, 100 };
+
+    Object[][] res = new Object[words.length * counts.length][];
+    for (int i = 0; i < words.length; i++) {
+      for (int j = 0; j < counts.length; j++) {
+        res[i * counts.length + j] = new Object[] { words[i], counts[j] };
+      }
+    }
+
+    return res;
+  }
 }
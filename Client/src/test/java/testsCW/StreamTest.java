@@ -0,0 +1,162 @@
+package testsCW;
+
+import org.client.crypto.SymmetricAlgorithm;
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.enums.EncryptionMode;
+import org.client.crypto.enums.PackingMode;
+import org.client.crypto.loki97.LOKI97;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.client.crypto.enums.PackingMode.PKCS7;
+import static testsCW.CipherFixtures.randomBytes;
+
+public class StreamTest {
+  private static final int[] LENGTHS = { 1, 7, 8, 16, 100, 65_536, 200_003 };
+
+  @Test(dataProvider = "ciphersModesAndPackings", dataProviderClass = CipherFixtures.class)
+  void testOutputStreamMatchesArray(SymmetricEncryption cipher, EncryptionMode mode, PackingMode packing) throws IOException {
+    for (int length : LENGTHS) {
+      // SETUP
+      Random random = new Random(length);
+      byte[] IV = randomBytes(random, cipher.getBlockSize());
+      byte[] message = randomBytes(random, length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, packing, IV);
+
+      // EXECUTION
+      ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+      try (OutputStream out = algorithm.encryptStream(encrypted)) {
+        writeInPieces(out, message, random);
+      }
+
+      ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+      try (OutputStream out = algorithm.decryptStream(decrypted)) {
+        writeInPieces(out, encrypted.toByteArray(), random);
+      }
+
+      // ASSERTION
+      Assert.assertEquals(encrypted.toByteArray(), algorithm.encrypt(message));
+      Assert.assertEquals(decrypted.toByteArray(), expectedMessage(message, cipher.getBlockSize(), packing));
+    }
+  }
+
+  @Test(dataProvider = "ciphersModesAndPackings", dataProviderClass = CipherFixtures.class)
+  void testInputStreamMatchesArray(SymmetricEncryption cipher, EncryptionMode mode, PackingMode packing) throws IOException {
+    for (int length : LENGTHS) {
+      // SETUP
+      Random random = new Random(length);
+      byte[] IV = randomBytes(random, cipher.getBlockSize());
+      byte[] message = randomBytes(random, length);
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, packing, IV);
+
+      // EXECUTION
+      byte[] encrypted;
+      try (InputStream in = algorithm.encryptStream(new ByteArrayInputStream(message))) {
+        encrypted = readInPieces(in, random);
+      }
+
+      byte[] decrypted;
+      try (InputStream in = algorithm.decryptStream(new ByteArrayInputStream(encrypted))) {
+        decrypted = readInPieces(in, random);
+      }
+
+      // ASSERTION
+      Assert.assertEquals(encrypted, algorithm.encrypt(message));
+      Assert.assertEquals(decrypted, expectedMessage(message, cipher.getBlockSize(), packing));
+    }
+  }
+
+  @Test(dataProvider = "ciphersModesAndPackings", dataProviderClass = CipherFixtures.class)
+  void testRaggedInputMatchesArray(SymmetricEncryption cipher, EncryptionMode mode, PackingMode packing) throws IOException {
+    for (int length : LENGTHS) {
+      // SETUP
+      Random random = new Random(length);
+      byte[] IV = randomBytes(random, cipher.getBlockSize());
+      SymmetricAlgorithm algorithm = new SymmetricAlgorithm(cipher, mode, packing, IV);
+      byte[] encrypted = algorithm.encrypt(randomBytes(random, length));
+      // За последним целым блоком шифротекста идёт хвост короче блока
+      byte[] input = Arrays.copyOf(encrypted, encrypted.length + 1 + random.nextInt(cipher.getBlockSize() - 1));
+
+      // EXECUTION
+      ByteArrayOutputStream written = new ByteArrayOutputStream();
+      try (OutputStream out = algorithm.decryptStream(written)) {
+        writeInPieces(out, input, random);
+      }
+
+      byte[] read;
+      try (InputStream in = algorithm.decryptStream(new ByteArrayInputStream(input))) {
+        read = readInPieces(in, random);
+      }
+
+      // ASSERTION
+      byte[] expected = algorithm.decrypt(input);
+      Assert.assertEquals(written.toByteArray(), expected);
+      Assert.assertEquals(read, expected);
+    }
+  }
+
+  @Test
+  void testChannelCycle() throws IOException {
+    // SETUP
+    Random random = new Random(3);
+    byte[] message = randomBytes(random, 150_001);
+    SymmetricAlgorithm algorithm =
+            new SymmetricAlgorithm(new LOKI97(randomBytes(random, 16)), EncryptionMode.CBC, PKCS7, new byte[16]);
+
+    // EXECUTION
+    ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+    try (WritableByteChannel out = algorithm.encryptChannel(Channels.newChannel(encrypted))) {
+      out.write(ByteBuffer.wrap(message));
+    }
+
+    ByteBuffer decrypted = ByteBuffer.allocate(message.length + 1);
+    try (ReadableByteChannel in =
+                 algorithm.decryptChannel(Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())))) {
+      while (in.read(decrypted) != -1) {
+        Assert.assertTrue(decrypted.hasRemaining());
+      }
+    }
+
+    // ASSERTION
+    Assert.assertEquals(encrypted.size(), algorithm.getEncryptedLength(message.length));
+    Assert.assertEquals(Arrays.copyOf(decrypted.array(), decrypted.position()), message);
+  }
+
+  /// Без набивки неполный последний блок отбрасывается, как и при шифровании массива
+  private static byte[] expectedMessage(byte[] message, int blockSize, PackingMode packing) {
+    return packing == PackingMode.NO ? Arrays.copyOf(message, message.length - message.length % blockSize) : message;
+  }
+
+  private static void writeInPieces(OutputStream out, byte[] data, Random random) throws IOException {
+    int offset = 0;
+    while (offset < data.length) {
+      int n = Math.min(data.length - offset, 1 + random.nextInt(20_000));
+      out.write(data, offset, n);
+      offset += n;
+    }
+  }
+
+  private static byte[] readInPieces(InputStream in, Random random) throws IOException {
+    ByteArrayOutputStream res = new ByteArrayOutputStream();
+    byte[] buffer = new byte[20_000];
+
+    int n;
+    while ((n = in.read(buffer, 0, 1 + random.nextInt(buffer.length))) != -1) {
+      res.write(buffer, 0, n);
+    }
+
+    return res.toByteArray();
+  }
+}
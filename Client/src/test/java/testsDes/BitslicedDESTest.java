@@ -0,0 +1,111 @@
+package testsDes;
+
+import org.client.crypto.SymmetricEncryption;
+import org.client.crypto.des.DEAL;
+import org.client.crypto.des.DES;
+import org.client.crypto.des.impl.BitslicedDES;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BitslicedDESTest {
+
+  @Test
+  void testTransposeIsInvolution() {
+    // SETUP
+    Random random = new Random(1);
+    long[] expectedOutput = new long[BitslicedDES.LANES];
+    for (int i = 0; i < expectedOutput.length; i++) {
+      expectedOutput[i] = random.nextLong();
+    }
+
+    // EXECUTION
+    long[] actualOutput = expectedOutput.clone();
+    BitslicedDES.transpose(actualOutput);
+    long[] transposed = actualOutput.clone();
+    BitslicedDES.transpose(actualOutput);
+
+    // ASSERTION
+    Assert.assertEquals(actualOutput, expectedOutput);
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 64; j++) {
+        Assert.assertEquals((transposed[i] >>> (63 - j)) & 1, (expectedOutput[j] >>> (63 - i)) & 1);
+      }
+    }
+  }
+
+  @Test
+  void testMatchesScalarDES() {
+    // SETUP
+    Random random = new Random(2);
+    byte[] key = new byte[8];
+    random.nextBytes(key);
+    long[] roundKeys = DES.schedule(key);
+
+    long[] text = new long[BitslicedDES.LANES];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = random.nextLong();
+    }
+
+    // EXECUTION
+    BitslicedDES bitsliced = new BitslicedDES(roundKeys);
+    long[] actualCipher = text.clone();
+    bitsliced.encrypt(actualCipher);
+    long[] actualText = actualCipher.clone();
+    bitsliced.decrypt(actualText);
+
+    // ASSERTION
+    for (int i = 0; i < text.length; i++) {
+      Assert.assertEquals(actualCipher[i], DES.encrypt(text[i], roundKeys));
+    }
+    Assert.assertEquals(actualText, text);
+  }
+
+  @Test(dataProvider = "blockCounts")
+  void testEncryptBlocksMatchesEncryptBlock(SymmetricEncryption cipher, int count) {
+    // SETUP
+    int blockSize = cipher.getBlockSize();
+    byte[] text = new byte[count * blockSize + 3];
+    new Random(count).nextBytes(text);
+
+    byte[] expectedCipher = new byte[count * blockSize];
+    for (int k = 0; k < count; k++) {
+      cipher.encryptBlock(text, 3 + k * blockSize, expectedCipher, k * blockSize);
+    }
+
+    // EXECUTION
+    byte[] actualCipher = new byte[count * blockSize];
+    cipher.encryptBlocks(text, 3, count, actualCipher, 0);
+    byte[] actualText = actualCipher.clone();
+    cipher.decryptBlocks(actualText, 0, count, actualText, 0);
+
+    // ASSERTION
+    Assert.assertEquals(actualCipher, expectedCipher);
+    Assert.assertEquals(actualText, Arrays.copyOfRange(text, 3, text.length));
+  }
+
+  @DataProvider(name = "blockCounts")
+  Object[][] blockCountsProvider() {
+    byte[] key = new byte[24];
+    new Random(3).nextBytes(key);
+
+    SymmetricEncryption[] ciphers = {
+            new DES(Arrays.copyOf(key, 8)),
+            new DEAL(Arrays.copyOf(key, 16)),
+            new DEAL(key)
+    };
+    int[] counts = { 0, 1, BitslicedDES.MIN_BLOCKS - 1, BitslicedDES.MIN_BLOCKS, 64, 65, 200 };
+
+    Object[][] res = new Object[ciphers.length * counts.length][];
+    for (int i = 0; i < ciphers.length; i++) {
+      for (int j = 0; j < counts.length; j++) {
+        res[i * counts.length + j] = new Object[] { ciphers[i], counts[j] };
+      }
+    }
+
+    return res;
+  }
+}
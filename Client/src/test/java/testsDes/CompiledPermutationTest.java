@@ -0,0 +1,81 @@
+package testsDes;
+
+import org.client.crypto.enums.IndexingRule;
+import org.client.crypto.permutations.CompiledPermutation;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.client.crypto.enums.IndexingRule.*;
+import static org.client.crypto.permutations.Permutations.rearrange;
+import static org.client.crypto.permutations.matrices.MDES.IP;
+import static org.client.crypto.permutations.matrices.MDES.reverseIP;
+import static org.client.crypto.permutations.matrices.MEncryption.E;
+import static org.client.crypto.permutations.matrices.MEncryption.P;
+import static org.client.crypto.permutations.matrices.MGenKey.endP;
+import static org.client.crypto.permutations.matrices.MGenKey.startP;
+import static org.client.crypto.permutations.matrices.MLOKI97.LOKI97Permutation;
+
+public class CompiledPermutationTest {
+
+  @Test(dataProvider = "permutations")
+  void testMatchesRearrange(List<Integer> blockP, IndexingRule rule, byte[] text) {
+    // SETUP
+    byte[] expectedOutput = rearrange(text, blockP, rule);
+
+    // EXECUTION
+    CompiledPermutation permutation = new CompiledPermutation(blockP, text.length, rule);
+    byte[] actualOutput = permutation.apply(text);
+
+    // ASSERTION
+    Assert.assertEquals(actualOutput, expectedOutput);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  void testWrongTextLength() {
+    // SETUP
+    CompiledPermutation permutation = new CompiledPermutation(IP, 8, HIGHEST1);
+
+    // EXECUTION
+    permutation.apply(new byte[7]);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  void testIndexOutOfBounds() {
+    // EXECUTION
+    new CompiledPermutation(IP, 7, HIGHEST1);
+  }
+
+  @DataProvider(name = "permutations")
+  Object[][] permutationsProvider() {
+    Object[][] tables = {
+            { IP, 8, HIGHEST1 },
+            { reverseIP, 8, HIGHEST1 },
+            { E, 4, HIGHEST1 },
+            { P, 4, HIGHEST1 },
+            { startP, 8, HIGHEST1 },
+            { endP, 7, HIGHEST1 },
+            { LOKI97Permutation, 8, LOWEST0 },
+            { LOKI97Permutation, 8, HIGHEST0 },
+            { IP, 8, LOWEST1 }
+    };
+
+    Random random = new Random(97);
+    List<Object[]> res = new ArrayList<>();
+
+    for (Object[] table : tables) {
+      for (int i = 0; i < 50; i++) {
+        byte[] text = new byte[(int) table[1]];
+        random.nextBytes(text);
+
+        res.add(new Object[] { table[0], table[2], text });
+      }
+    }
+
+    return res.toArray(new Object[0][]);
+  }
+}
@@ -2,6 +2,7 @@ package testsDes;
 
 import org.client.crypto.SymmetricAlgorithm;
 import org.client.crypto.des.DES;
+import org.client.crypto.enums.FileAccessMode;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
@@ -1462,6 +1463,36 @@ public class DESContextTest {
     Assert.assertTrue(areFilesEqual(in, decOut));
   }
 
+  @Test
+  void testMappedPictureFileCycle() throws IOException {
+    // SETUP
+    byte[] key = {
+        (byte) 0x55, (byte) 0x46, (byte) 0xEA, (byte) 0xDD, (byte) 0x5C, (byte) 0x59, (byte) 0xE9
+    };
+    byte[] initVector = {
+        (byte) 0x5a, (byte) 0xa8, (byte) 0x08, (byte) 0x43, (byte) 0x19, (byte) 0xe5, (byte) 0xd8, (byte) 0x2d,
+    };
+
+    String in = testDirectory + "/picture.jpg";
+    String encOut = testDirectory + "/encryptedPictureMapped";
+    String bufferedEncOut = testDirectory + "/encryptedPictureBuffered";
+    String decOut = testDirectory + "/decryptedPictureMapped.jpg";
+
+    // EXECUTION
+    var cryptoSystem = new DES(key);
+    var bufferedContext = new SymmetricAlgorithm(cryptoSystem, CBC, PKCS7, initVector);
+    var cryptoContext = new SymmetricAlgorithm(cryptoSystem, CBC, PKCS7, initVector);
+    cryptoContext.setFileAccessMode(FileAccessMode.MAPPED);
+
+    bufferedContext.encrypt(in, bufferedEncOut);
+    cryptoContext.encrypt(in, encOut);
+    cryptoContext.decrypt(encOut, decOut);
+
+    // ASSERTION
+    Assert.assertTrue(areFilesEqual(bufferedEncOut, encOut));
+    Assert.assertTrue(areFilesEqual(in, decOut));
+  }
+
   // endregion
 
   // region --- Data providers ---
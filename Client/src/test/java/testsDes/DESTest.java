@@ -4,14 +4,24 @@ import org.client.crypto.IFeistelFunction;
 import org.client.crypto.IGenKey;
 import org.client.crypto.SymmetricEncryption;
 import org.client.crypto.des.DES;
+import org.client.crypto.des.FeistelCipher;
 import org.client.crypto.des.impl.DESFeistelFunction;
 import org.client.crypto.des.impl.DESGenKey;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+
+import static org.client.crypto.enums.EncryptOrDecrypt.DECRYPT;
+import static org.client.crypto.enums.EncryptOrDecrypt.ENCRYPT;
+import static org.client.crypto.enums.IndexingRule.HIGHEST1;
+import static org.client.crypto.permutations.Permutations.rearrange;
+import static org.client.crypto.permutations.matrices.MDES.IP;
+import static org.client.crypto.permutations.matrices.MDES.reverseIP;
 
 public class DESTest {
 
@@ -109,6 +119,56 @@ public class DESTest {
     Assert.assertEquals(decryptedMessage, message);
   }
 
+  @Test(dataProvider = "RandomDataForDES")
+  void testDESMatchesReference(byte[] key, byte[] message) {
+    // SETUP
+    FeistelCipher reference = new FeistelCipher(new DESGenKey(), new DESFeistelFunction(), key);
+    byte[] expectedCipher = rearrange(reference.cipher(rearrange(message, IP, HIGHEST1), ENCRYPT), reverseIP, HIGHEST1);
+    byte[] expectedMessage = rearrange(reference.cipher(rearrange(message, IP, HIGHEST1), DECRYPT), reverseIP, HIGHEST1);
+
+    // EXECUTION
+    SymmetricEncryption des = new DES(key);
+    byte[] actualCipher = des.encryption(message);
+    byte[] actualMessage = des.decryption(message);
+
+    // ASSERTION
+    Assert.assertEquals(actualCipher, expectedCipher);
+    Assert.assertEquals(actualMessage, expectedMessage);
+  }
+
+  @Test(dataProvider = "RandomDataForDES")
+  void testFeistelFunctionMatchesReference(byte[] key, byte[] message) {
+    // SETUP
+    DESFeistelFunction feistelFunction = new DESFeistelFunction();
+    byte[] roundKey = Arrays.copyOf(key, 6);
+    byte[] text = Arrays.copyOf(message, 4);
+
+    // EXECUTION
+    int actualOutput = feistelFunction.encrypt(ByteBuffer.wrap(text).getInt(),
+            ByteBuffer.allocate(Long.BYTES).put(2, roundKey).getLong());
+
+    // ASSERTION
+    Assert.assertEquals(ByteBuffer.allocate(Integer.BYTES).putInt(actualOutput).array(),
+            feistelFunction.encrypt(text, roundKey));
+  }
+
+  @DataProvider(name = "RandomDataForDES")
+  Object[][] getRandomData() {
+    Random random = new Random(56);
+    Object[][] res = new Object[200][];
+
+    for (int i = 0; i < res.length; i++) {
+      byte[] key = new byte[i % 2 == 0 ? 8 : 7];
+      byte[] message = new byte[8];
+      random.nextBytes(key);
+      random.nextBytes(message);
+
+      res[i] = new Object[] {key, message};
+    }
+
+    return res;
+  }
+
   @DataProvider(name = "ValidDataForDES")
   Object[][] getValidData() {
     return new byte[][][] {